@@ -0,0 +1,51 @@
+package com.samstdio.sudoku;
+
+/**
+ * Puzzles the benchmarks run on, from easy to 17 clues, in the one-line format of PuzzleFormat,
+ * plus larger boards to check the solvers scale with the board size.
+ */
+public enum BenchmarkPuzzles {
+    // naked singles only
+    EASY("420500070000460105060910030602080450705200960940700000050070300300601082009000000"),
+    // needs hidden singles and subsets
+    MEDIUM("306000080000040200100002007090600000007010400000003050500800001004020000080000903"),
+    // slow for backtracking in board order
+    HARD("400000805030000000000700000020000060000080400000010000000603070500200000104000000"),
+    // 17 clues
+    MINIMAL("000000010400000000020000000000050407008000300001090000300400200050100000000806000"),
+    // 16x16, a shuffled pattern grid with about half the cells blank
+    GRID_16("5.8..4........3AB9D..8C.....E7143..G...B.17E..581E...AG3...F92BDF.C..75E...DA16G9D.3......1"
+            + "...E...G1D.397...8B.C.4.5..1...........B.7...3D.....1D..6.B981AEG7...4.5.G1EA.89C2.D..G..2."
+            + "6.5.F7C9.B.1.4.6...7.5....2..AB9D.EG...87.C.9..F8...A3.4.E.5..1E4G...B...."),
+    // 25x25, same construction
+    GRID_25("7L.A.P....O3.I8..4.5.2..K9..JKB5..4...7A.I3.D..PFC.B4.5L.7A..NCHFM.2J..3O8DI..8....J...5..P"
+            + "..F...L.GH.NFC.D..3M2.9...1.G6..E5.85IO.M.9GE.B46F..HP..A7.1AD7L.P.H.85.3IE.C6.2.J9M4.C6.A."
+            + ".....PNH....M35.I.2.G.ME.46.A..17..5.....HPN.K..8O..5..M...1..L4........I..............HO8"
+            + "1D.P.F..17OD8NJH..2.A.......O18.7NH.K.3..B.4P.C6.A..9M....3.B5E..9LG..8.7PF..6..AG94..CF..7"
+            + "...BE.IM...H...O1KNJ..563.BC.HP.A..L..G7.2C....D.1.O5.6.3.9.MN..H.4.18.I..NJ.G.7.2.6..3JK9M"
+            + ".5..B6...ALD8...FHC.4.56B3G....CH.F.K.9MN8ID.1G9...6..4....D.I...8KM..F.....9.G2..P.C4H..."
+            + "FD.7.AC.P.E.A..O....N.G.2J5...8..M.F...3B9LJ.27D.1..P6.E....AH.KN.I.8.36CP4..L.2J");
+
+    private final String puzzle;
+
+    BenchmarkPuzzles(String puzzle) {
+        this.puzzle = puzzle;
+    }
+
+    public int size() {
+        return (int) Math.round(Math.sqrt(puzzle.length()));
+    }
+
+    /**
+     * @return a fresh board.
+     */
+    public int[][] board() {
+        int size = size();
+        int[][] board = new int[size][size];
+
+        for (int i = 0; i < size * size; i++)
+            board[i / size][i % size] = PuzzleFormat.decode((byte) puzzle.charAt(i));
+
+        return board;
+    }
+}
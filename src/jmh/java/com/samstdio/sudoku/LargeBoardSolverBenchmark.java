@@ -0,0 +1,29 @@
+package com.samstdio.sudoku;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full solve() on 16x16 and 25x25 boards, to see how the solvers scale with the board size.
+ * Backtracking in board order is left out, it takes minutes on 25x25.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LargeBoardSolverBenchmark {
+    @Param({"HUMAN", "BRUTAL_FORCE", "DANCING_LINKS"})
+    public SolverBenchmark.Solver solver;
+
+    @Param({"GRID_16", "GRID_25"})
+    public BenchmarkPuzzles puzzle;
+
+    @Benchmark
+    public boolean solve() {
+        SudokuGame game = new SudokuGame(puzzle.board(), null, puzzle.size(), 0);
+        return solver.create(game).solve();
+    }
+}
@@ -0,0 +1,35 @@
+package com.samstdio.sudoku;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One puzzle per call, a new index every time. HARD is left out, it is rare enough that
+ * a single puzzle takes around a hundred grids.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PuzzleGeneratorBenchmark {
+    @Param({"ANY", "EASY", "MEDIUM", "EXPERT"})
+    public String difficulty;
+
+    private PuzzleGenerator generator;
+    private Difficulty target;
+    private long index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = new PuzzleGenerator(1);
+        target = "ANY".equals(difficulty) ? null : Difficulty.valueOf(difficulty);
+    }
+
+    @Benchmark
+    public PuzzleGenerator.Puzzle generate() {
+        return generator.generate(index++, target);
+    }
+}
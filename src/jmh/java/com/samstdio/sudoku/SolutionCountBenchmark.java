@@ -0,0 +1,32 @@
+package com.samstdio.sudoku;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uniqueness check with Dancing Links, compare with DANCING_LINKS in SolverBenchmark.
+ * The matrix is built once per trial, countSolutions leaves it and the game as they were.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SolutionCountBenchmark {
+    @Param({"EASY", "MEDIUM", "HARD", "MINIMAL"})
+    public BenchmarkPuzzles puzzle;
+
+    private SudokuSolverDancingLinks solver;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        solver = new SudokuSolverDancingLinks(new SudokuGame(puzzle.board(), null, puzzle.size(), 0));
+    }
+
+    @Benchmark
+    public SolutionCount countSolutions() {
+        return solver.countSolutions();
+    }
+}
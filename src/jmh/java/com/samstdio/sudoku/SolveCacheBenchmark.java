@@ -0,0 +1,35 @@
+package com.samstdio.sudoku;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A repeated puzzle through SudokuSolverCached, compare with DANCING_LINKS in SolverBenchmark.
+ * The cache holds the puzzle from setup on, so every invocation is a hit: canonical form,
+ * lookup and mapping the solution back onto a fresh game.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SolveCacheBenchmark {
+    @Param({"EASY", "MEDIUM", "HARD", "MINIMAL"})
+    public BenchmarkPuzzles puzzle;
+
+    private SolveCache cache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = new SolveCache(16);
+        solveCached();
+    }
+
+    @Benchmark
+    public boolean solveCached() {
+        SudokuGame game = new SudokuGame(puzzle.board(), null, puzzle.size(), 0);
+        return new SudokuSolverCached(game, cache, SudokuSolverDancingLinks::new).solve();
+    }
+}
@@ -0,0 +1,76 @@
+package com.samstdio.sudoku;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full solve() of every SudokuSolver on 9x9 puzzles, from a fresh game each time, or
+ * from one game and solver reset to the puzzle as a SolverPool does.
+ * Solvers that give up on a puzzle are measured up to the point they give up.
+ * LargeBoardSolverBenchmark covers bigger boards.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark {
+    public enum Solver {
+        HUMAN,
+        BRUTAL_FORCE,
+        BRUTAL_FORCE_SEQUENTIAL,
+        DANCING_LINKS,
+        BITBOARD,
+        PARALLEL;
+
+        SudokuSolver create(SudokuGame game) {
+            switch (this) {
+                case HUMAN:
+                    return new SudokuSolverHuman(game);
+                case BRUTAL_FORCE:
+                    return new SudokuSolverBrutalForce(game);
+                case BRUTAL_FORCE_SEQUENTIAL:
+                    return new SudokuSolverBrutalForce(game, SearchOrder.SEQUENTIAL);
+                case DANCING_LINKS:
+                    return new SudokuSolverDancingLinks(game);
+                case BITBOARD:
+                    return new SudokuSolverBitboard(game);
+                case PARALLEL:
+                    return new SudokuSolverParallel(game);
+            }
+            throw new IllegalStateException(name());
+        }
+    }
+
+    @Param({"HUMAN", "BRUTAL_FORCE", "BRUTAL_FORCE_SEQUENTIAL", "DANCING_LINKS", "BITBOARD", "PARALLEL"})
+    public Solver solver;
+
+    @Param({"EASY", "MEDIUM", "HARD", "MINIMAL"})
+    public BenchmarkPuzzles puzzle;
+
+    private int[][] board;
+    private SudokuGame reused_game;
+    private SudokuSolver reused_solver;
+
+    @Setup
+    public void setUp() {
+        board = puzzle.board();
+        reused_game = new SudokuGame(board, null, puzzle.size(), 0);
+        reused_solver = solver.create(reused_game);
+    }
+
+    @Benchmark
+    public boolean solve() {
+        SudokuGame game = new SudokuGame(puzzle.board(), null, puzzle.size(), 0);
+        return solver.create(game).solve();
+    }
+
+    @Benchmark
+    public boolean solveReused() {
+        reused_game.reset(board);
+        reused_solver.reset();
+        return reused_solver.solve();
+    }
+}
@@ -0,0 +1,80 @@
+package com.samstdio.sudoku;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call costs of SudokuGame operations the solvers lean on.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SudokuGameBenchmark {
+    @Param({"EASY", "MINIMAL", "GRID_16", "GRID_25"})
+    public BenchmarkPuzzles puzzle;
+
+    private SudokuGame game;
+    private int[][] blanks;
+    private int row;
+    private int col;
+    private int num;
+    private int taken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        game = new SudokuGame(puzzle.board(), null, puzzle.size(), 0);
+        blanks = game.getBlankPosition();
+
+        // first blank and a number it accepts
+        row = blanks[0][0];
+        col = blanks[0][1];
+        num = Long.numberOfTrailingZeros(game.getCandidateMask(row, col));
+        // and a number already placed in its row, column or section
+        taken = Long.numberOfTrailingZeros(game.getNumbersMask() & ~game.getCandidateMask(row, col));
+    }
+
+    @Benchmark
+    public SudokuGame.AssignResult assignAndUndo() {
+        SudokuGame.AssignResult result = game.assign(row, col, num);
+        game.unassign(row, col);
+        return result;
+    }
+
+    @Benchmark
+    public SudokuGame.AssignResult assignRejected() {
+        // a peer already holds the number, so the row, column and section masks refuse it
+        return game.assign(row, col, taken);
+    }
+
+    @Benchmark
+    public int[][] blankPosition() {
+        return game.getBlankPosition();
+    }
+
+    @Benchmark
+    public void blankCells(Blackhole blackhole) {
+        for (int i = 0; i < game.getBlankCount(); i++)
+            blackhole.consume(game.getBlankCell(i));
+    }
+
+    @Benchmark
+    public void candidateMasks(Blackhole blackhole) {
+        for (int[] blank : blanks)
+            blackhole.consume(game.getCandidateMask(blank[0], blank[1]));
+    }
+
+    @Benchmark
+    public CandidateGrid candidateGrid() {
+        CandidateGrid grid = new CandidateGrid(game);
+
+        for (int[] blank : blanks)
+            grid.setMask(blank[0] * game.getSize() + blank[1], game.getCandidateMask(blank[0], blank[1]));
+
+        return grid;
+    }
+}
@@ -0,0 +1,236 @@
+package com.samstdio.sudoku;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Solves many puzzles on a fixed pool of worker threads.
+ *
+ * Puzzles are cut into chunks, one task per chunk, so workers do not contend on a shared queue
+ * per puzzle. At most a few chunks per worker are in flight, so a long stream is never read
+ * ahead into memory. Results come back in input order, tagged with their input index.
+ * A budget per puzzle keeps one bad puzzle from holding a worker.
+ */
+public class BatchSolver implements AutoCloseable {
+    private static final int DEFAULT_CHUNK_SIZE = 64;
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final ExecutorService pool;
+    private final int threads;
+    private final int chunk_size;
+    private final SolveBudget budget;
+    // each worker keeps its game and solver from puzzle to puzzle
+    private final SolverPool solvers;
+
+    public BatchSolver(int threads, Function<SudokuGame, SudokuSolver> factory) {
+        this(threads, DEFAULT_CHUNK_SIZE, 9, 0, factory);
+    }
+
+    /**
+     * @param threads number of worker threads.
+     * @param chunk_size puzzles per task.
+     * @param nums largest number on the board, as for SudokuGame.
+     * @param blank number marking a blank, as for SudokuGame.
+     * @param factory creates the solver of a game, once per worker that is then reset to each puzzle.
+     */
+    public BatchSolver(int threads, int chunk_size, int nums, int blank,
+                       Function<SudokuGame, SudokuSolver> factory) {
+        this(threads, chunk_size, nums, blank, SolveBudget.UNLIMITED, factory);
+    }
+
+    /**
+     * @param threads number of worker threads.
+     * @param chunk_size puzzles per task.
+     * @param nums largest number on the board, as for SudokuGame.
+     * @param blank number marking a blank, as for SudokuGame.
+     * @param budget limits of each puzzle's solve.
+     * @param factory creates the solver of a game, once per worker that is then reset to each puzzle.
+     */
+    public BatchSolver(int threads, int chunk_size, int nums, int blank, SolveBudget budget,
+                       Function<SudokuGame, SudokuSolver> factory) {
+        if (threads < 1 || chunk_size < 1)
+            throw new IllegalArgumentException("threads and chunk_size should be positive");
+
+        this.threads = threads;
+        this.chunk_size = chunk_size;
+        this.budget = budget;
+        this.solvers = new SolverPool(nums, blank, factory);
+        this.pool = Executors.newFixedThreadPool(threads, new WorkerThreadFactory());
+    }
+
+    /**
+     * Solve every puzzle and collect the results in input order.
+     */
+    public List<Result> solveAll(Stream<int[][]> puzzles) {
+        List<Result> results = new ArrayList<>();
+        solveAll(puzzles, results::add);
+        return results;
+    }
+
+    /**
+     * Solve every puzzle, handing results to consumer in input order on the calling thread.
+     * Input boards are not modified.
+     */
+    public void solveAll(Stream<int[][]> puzzles, Consumer<Result> consumer) {
+        Iterator<int[][]> iterator = puzzles.iterator();
+        ArrayDeque<Future<Result[]>> in_flight = new ArrayDeque<>();
+        int max_in_flight = threads * CHUNKS_PER_WORKER;
+        int index = 0;
+
+        while (iterator.hasNext()) {
+            List<int[][]> chunk = new ArrayList<>(chunk_size);
+            while (chunk.size() < chunk_size && iterator.hasNext())
+                chunk.add(iterator.next());
+
+            final int first = index;
+            index += chunk.size();
+            in_flight.add(pool.submit(() -> solveChunk(first, chunk)));
+
+            if (in_flight.size() >= max_in_flight)
+                drain(in_flight.poll(), consumer);
+        }
+
+        while (!in_flight.isEmpty())
+            drain(in_flight.poll(), consumer);
+    }
+
+    private static void drain(Future<Result[]> future, Consumer<Result> consumer) {
+        try {
+            for (Result result : future.get())
+                consumer.accept(result);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for results", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("solving failed", e.getCause());
+        }
+    }
+
+    private Result[] solveChunk(int first, List<int[][]> chunk) {
+        Result[] results = new Result[chunk.size()];
+
+        for (int i = 0; i < results.length; i++) {
+            SolverPool.Entry entry = solvers.acquire(chunk.get(i));
+            SolveResult result = entry.getSolver().solve(budget);
+
+            results[i] = new Result(first + i, entry.getGame().getBoard(), result, entry.getSolver().getStats());
+        }
+
+        return results;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Solve a puzzle file into a solution file, one line per puzzle in input order.
+     * Unsolved puzzles are written as far as they got.
+     * usage : BatchSolver input output [threads]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("usage : BatchSolver input output [threads] [cache_size]");
+            return;
+        }
+
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        SolveCache cache = args.length > 3 ? new SolveCache(Integer.parseInt(args[3])) : null;
+        SolverMetrics metrics = new SolverMetrics();
+
+        try (PuzzleReader reader = new PuzzleReader(Paths.get(args[0]));
+             PuzzleWriter writer = new PuzzleWriter(Paths.get(args[1]));
+             BatchSolver batch = new BatchSolver(threads, game -> {
+                 SudokuSolver solver = cache != null
+                         ? new SudokuSolverCached(game, cache, SudokuSolverDancingLinks::new)
+                         : new SudokuSolverDancingLinks(game);
+                 solver.setMetrics(metrics);
+                 return solver;
+             })) {
+            batch.solveAll(reader.boards(), result -> {
+                try {
+                    writer.write(result.getBoard());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        System.out.println(metrics.snapshot());
+        if (cache != null)
+            System.out.println("cache hits=" + cache.getHits() + " misses=" + cache.getMisses()
+                    + " evictions=" + cache.getEvictions());
+    }
+
+    public static final class Result {
+        private final int index;
+        private final int[][] board;
+        private final SolveResult result;
+        private final SolveStats stats;
+
+        Result(int index, int[][] board, SolveResult result, SolveStats stats) {
+            this.index = index;
+            this.board = board;
+            this.result = result;
+            this.stats = stats;
+        }
+
+        /**
+         * @return position of the puzzle in the input.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return the board after solving, partially filled if it was not solved.
+         */
+        public int[][] getBoard() {
+            return board;
+        }
+
+        public boolean isSolved() {
+            return result == SolveResult.SOLVED;
+        }
+
+        public SolveResult getResult() {
+            return result;
+        }
+
+        /**
+         * @return counters of the solve, to find the expensive puzzles.
+         */
+        public SolveStats getStats() {
+            return stats;
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private static final AtomicInteger POOL_ID = new AtomicInteger();
+
+        private final int pool_id = POOL_ID.incrementAndGet();
+        private final AtomicInteger thread_id = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "sudoku-batch-" + pool_id + "-" + thread_id.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
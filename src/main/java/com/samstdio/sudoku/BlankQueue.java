@@ -0,0 +1,103 @@
+package com.samstdio.sudoku;
+
+import java.util.Arrays;
+
+/**
+ * Blanks ordered by how many candidates they have left, fewest first.
+ *
+ * Cells are board indexes (row * size + col). One bucket per candidate count holds a doubly
+ * linked list threaded through int arrays, so add, remove and update are O(1) and the
+ * minimum is found by scanning at most size + 1 buckets.
+ */
+class BlankQueue {
+    private static final int NONE = -1;
+
+    private final int[] head;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] count;
+    private int size;
+
+    /**
+     * @param cells number of cells on the board.
+     * @param max_count largest candidate count a blank can have.
+     */
+    BlankQueue(final int cells, final int max_count) {
+        this.head = new int[max_count + 1];
+        this.next = new int[cells];
+        this.prev = new int[cells];
+        this.count = new int[cells];
+
+        clear();
+    }
+
+    void clear() {
+        Arrays.fill(head, NONE);
+        Arrays.fill(count, NONE);
+        size = 0;
+    }
+
+    void add(final int cell, final int candidates) {
+        count[cell] = candidates;
+        prev[cell] = NONE;
+        next[cell] = head[candidates];
+
+        if (head[candidates] != NONE)
+            prev[head[candidates]] = cell;
+
+        head[candidates] = cell;
+        size++;
+    }
+
+    void remove(final int cell) {
+        int bucket = count[cell];
+
+        if (prev[cell] != NONE)
+            next[prev[cell]] = next[cell];
+        else
+            head[bucket] = next[cell];
+
+        if (next[cell] != NONE)
+            prev[next[cell]] = prev[cell];
+
+        count[cell] = NONE;
+        size--;
+    }
+
+    void update(final int cell, final int candidates) {
+        if (count[cell] == candidates)
+            return;
+
+        remove(cell);
+        add(cell, candidates);
+    }
+
+    boolean contains(final int cell) {
+        return count[cell] != NONE;
+    }
+
+    /**
+     * @return candidate count the cell was queued with, -1 if it is not queued.
+     */
+    int count(final int cell) {
+        return count[cell];
+    }
+
+    /**
+     * @return the blank with the fewest candidates, -1 if the queue is empty.
+     */
+    int peekMin() {
+        if (size == 0)
+            return NONE;
+
+        for (int bucket = 0; bucket < head.length; bucket++)
+            if (head[bucket] != NONE)
+                return head[bucket];
+
+        return NONE;
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,56 @@
+package com.samstdio.sudoku;
+
+/**
+ * Box/line reduction : when a number's places in a row or column all lie in one section,
+ * the number is removed from the rest of that section.
+ */
+class BoxLineReductionStage implements DeductionStage {
+    @Override
+    public Technique technique() {
+        return Technique.BOX_LINE_REDUCTION;
+    }
+
+    @Override
+    public boolean apply(final CandidateGrid grid) {
+        boolean changed = false;
+
+        for (int i = 0; i < grid.size(); i++) {
+            changed |= reduce(grid, grid.row(i), true, i);
+            changed |= reduce(grid, grid.column(i), false, i);
+        }
+
+        return changed;
+    }
+
+    private static boolean reduce(final CandidateGrid grid, final int[] line, final boolean is_row,
+                                  final int index) {
+        boolean changed = false;
+
+        long union = 0;
+        for (int cell : line)
+            union |= grid.mask(cell);
+
+        for (long rest = union; rest != 0; rest &= rest - 1) {
+            long bit = Long.lowestOneBit(rest);
+            int sec = -1;
+
+            for (int cell : line) {
+                if ((grid.mask(cell) & bit) == 0)
+                    continue;
+
+                sec = sec == -1 || sec == grid.sectionOf(cell) ? grid.sectionOf(cell) : -2;
+            }
+
+            if (sec < 0)
+                continue;
+
+            for (int cell : grid.section(sec)) {
+                int line_index = is_row ? grid.rowOf(cell) : grid.columnOf(cell);
+                if (line_index != index)
+                    changed |= grid.eliminate(cell, bit);
+            }
+        }
+
+        return changed;
+    }
+}
@@ -0,0 +1,163 @@
+package com.samstdio.sudoku;
+
+/**
+ * Candidates of every cell, shared by the deduction stages.
+ *
+ * Cells are board indexes (row * size + col) and candidates are masks with bit (1L << num) per
+ * number, like SudokuGame.getCandidateMask. Placed cells have an empty mask.
+ * Units are the rows, then the columns, then the sections, each as a list of cells.
+ */
+class CandidateGrid {
+    private final int size;
+    private final int box;
+    private final long[] masks;
+    private final int[] values;
+    private final int[][] units;
+    private final int[][] peers;
+
+    CandidateGrid(final SudokuGame game) {
+        this.size = game.getSize();
+        this.box = game.getBox();
+        this.masks = new long[size * size];
+        this.values = new int[size * size];
+        this.units = new int[3 * size][size];
+        this.peers = new int[size * size][];
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                units[i][j] = i * size + j;
+                units[size + i][j] = j * size + i;
+                units[2 * size + i][j] = ((i / box) * box + j / box) * size + (i % box) * box + j % box;
+            }
+        }
+
+        for (int cell = 0; cell < size * size; cell++)
+            peers[cell] = game.getPeers(cell);
+
+        reset(game);
+    }
+
+    /**
+     * Take up the numbers placed on the board of game, every mask empty.
+     */
+    void reset(final SudokuGame game) {
+        long numbers = game.getNumbersMask();
+
+        for (int cell = 0; cell < size * size; cell++) {
+            int num = game.getNumber(cell / size, cell % size);
+
+            masks[cell] = 0;
+            values[cell] = (numbers & (1L << num)) != 0 ? num : 0;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int box() {
+        return box;
+    }
+
+    long mask(final int cell) {
+        return masks[cell];
+    }
+
+    void setMask(final int cell, final long mask) {
+        masks[cell] = mask;
+    }
+
+    /**
+     * @return number placed in cell, 0 if it is blank.
+     */
+    int value(final int cell) {
+        return values[cell];
+    }
+
+    /**
+     * Copy every mask and placed number out, for load to bring back.
+     */
+    void save(final long[] saved_masks, final int[] saved_values) {
+        System.arraycopy(masks, 0, saved_masks, 0, masks.length);
+        System.arraycopy(values, 0, saved_values, 0, values.length);
+    }
+
+    void load(final long[] saved_masks, final int[] saved_values) {
+        System.arraycopy(saved_masks, 0, masks, 0, masks.length);
+        System.arraycopy(saved_values, 0, values, 0, values.length);
+    }
+
+    /**
+     * Remove numbers from the candidates of cell.
+     * @return true if a candidate was removed.
+     */
+    boolean eliminate(final int cell, final long bits) {
+        long mask = masks[cell];
+        if ((mask & bits) == 0)
+            return false;
+
+        masks[cell] = mask & ~bits;
+        return true;
+    }
+
+    /**
+     * Place num in cell and remove it from the candidates of every peer.
+     */
+    void place(final int cell, final int num) {
+        values[cell] = num;
+        masks[cell] = 0;
+
+        long bit = 1L << num;
+        for (int peer : peers[cell])
+            masks[peer] &= ~bit;
+    }
+
+    /**
+     * @return true if every number is placed or still a candidate in every unit.
+     * A number with no place left in a unit means the grid has no solution.
+     */
+    boolean covers(final long numbers) {
+        for (int[] unit : units) {
+            long seen = 0;
+            for (int cell : unit)
+                seen |= masks[cell] | (1L << values[cell]);
+
+            if ((seen & numbers) != numbers)
+                return false;
+        }
+
+        return true;
+    }
+
+    int unitCount() {
+        return units.length;
+    }
+
+    int[] unit(final int index) {
+        return units[index];
+    }
+
+    int[] row(final int row) {
+        return units[row];
+    }
+
+    int[] column(final int col) {
+        return units[size + col];
+    }
+
+    int[] section(final int sec) {
+        return units[2 * size + sec];
+    }
+
+    int rowOf(final int cell) {
+        return cell / size;
+    }
+
+    int columnOf(final int cell) {
+        return cell % size;
+    }
+
+    int sectionOf(final int cell) {
+        return (cell / size / box) * box + (cell % size) / box;
+    }
+}
@@ -0,0 +1,241 @@
+package com.samstdio.sudoku;
+
+import java.util.Arrays;
+
+/**
+ * A board brought to a normal form under the sudoku symmetries, and the way back.
+ *
+ * The board is tried as it is and transposed. Bands are ordered by weight, then the rows
+ * within each band, and the same for stacks and columns; ties keep their order. A line weighs
+ * by its clues and the clue counts of the lines crossing them. Numbers are then relabeled
+ * 1, 2, ... in order of first appearance, and the smaller of the two results is the normal
+ * form. This is much cheaper than the minimal lexicographic form: boards equivalent by
+ * relabeling, transposition or permutations of lines with distinct weights share a form,
+ * but equivalent boards with tied weights may not. A missed share only costs a cache miss.
+ */
+final class CanonicalForm {
+    private final int size;
+    // canonical cell -> original cell
+    private final int[] cells;
+    // original number -> canonical number, and back
+    private final int[] to_canonical;
+    private final int[] to_original;
+    private final Key key;
+
+    private CanonicalForm(int size, int[] cells, int[] to_canonical, int[] to_original, Key key) {
+        this.size = size;
+        this.cells = cells;
+        this.to_canonical = to_canonical;
+        this.to_original = to_original;
+        this.key = key;
+    }
+
+    static CanonicalForm of(final SudokuGame game) {
+        int size = game.getSize();
+        int box = game.getBox();
+        long numbers = game.getNumbersMask();
+
+        int[] board = new int[size * size];
+        for (int cell = 0; cell < board.length; cell++) {
+            int num = game.getNumber(cell / size, cell % size);
+            board[cell] = (numbers & (1L << num)) != 0 ? num : 0;
+        }
+
+        CanonicalForm straight = orient(board, size, box, numbers, false);
+        CanonicalForm transposed = orient(board, size, box, numbers, true);
+
+        return straight.key.compareTo(transposed.key) <= 0 ? straight : transposed;
+    }
+
+    private static CanonicalForm orient(int[] board, int size, int box, long numbers, boolean transpose) {
+        int[] row_counts = new int[size];
+        int[] col_counts = new int[size];
+        for (int cell = 0; cell < board.length; cell++) {
+            if (board[cell] != 0) {
+                row_counts[cell / size]++;
+                col_counts[cell % size]++;
+            }
+        }
+
+        // a line weighs its clues, then the clues of the lines crossing it at them, which line
+        // permutations and relabeling leave alone; ties are rarer than by clue count only
+        long[] row_weights = new long[size];
+        long[] col_weights = new long[size];
+        for (int cell = 0; cell < board.length; cell++) {
+            if (board[cell] != 0) {
+                long row_count = row_counts[cell / size];
+                long col_count = col_counts[cell % size];
+                row_weights[cell / size] += (1L << 32) + col_count * col_count * col_count;
+                col_weights[cell % size] += (1L << 32) + row_count * row_count * row_count;
+            }
+        }
+
+        int[] rows = order(transpose ? col_weights : row_weights, box);
+        int[] cols = order(transpose ? row_weights : col_weights, box);
+
+        int[] cells = new int[board.length];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                cells[r * size + c] = transpose
+                        ? cols[c] * size + rows[r]
+                        : rows[r] * size + cols[c];
+            }
+        }
+
+        // numbers in order of first appearance, the unused ones after them
+        int[] to_canonical = new int[Long.SIZE];
+        int[] to_original = new int[Long.bitCount(numbers) + 1];
+        int next = 1;
+        for (int cell : cells) {
+            int num = board[cell];
+            if (num != 0 && to_canonical[num] == 0) {
+                to_canonical[num] = next;
+                to_original[next++] = num;
+            }
+        }
+        for (long m = numbers; m != 0; m &= m - 1) {
+            int num = Long.numberOfTrailingZeros(m);
+            if (to_canonical[num] == 0) {
+                to_canonical[num] = next;
+                to_original[next++] = num;
+            }
+        }
+
+        int[] canonical = new int[cells.length];
+        for (int i = 0; i < cells.length; i++)
+            canonical[i] = to_canonical[board[cells[i]]];
+
+        return new CanonicalForm(size, cells, to_canonical, to_original, new Key(size, next - 1, canonical));
+    }
+
+    /**
+     * @return lines ordered by the weight of their band, then by their own weight, most first.
+     */
+    private static int[] order(final long[] weights, final int box) {
+        int bands = weights.length / box;
+        long[] band_weights = new long[bands];
+        for (int line = 0; line < weights.length; line++)
+            band_weights[line / box] += weights[line];
+
+        int[] band_order = sortedIndexes(band_weights, 0, bands);
+        int[] order = new int[weights.length];
+        for (int b = 0; b < bands; b++) {
+            int[] lines = sortedIndexes(weights, band_order[b] * box, box);
+            System.arraycopy(lines, 0, order, b * box, box);
+        }
+
+        return order;
+    }
+
+    /**
+     * @return indexes from..from+length-1, stably sorted by values, largest first.
+     */
+    private static int[] sortedIndexes(final long[] values, final int from, final int length) {
+        int[] indexes = new int[length];
+        for (int i = 0; i < length; i++) {
+            int index = from + i;
+            int j = i;
+            while (0 < j && values[indexes[j - 1]] < values[index]) {
+                indexes[j] = indexes[j - 1];
+                j--;
+            }
+            indexes[j] = index;
+        }
+        return indexes;
+    }
+
+    Key key() {
+        return key;
+    }
+
+    /**
+     * @return the numbers of a board of the original game, in canonical cells and labels.
+     */
+    byte[] canonical(final SudokuGame game) {
+        byte[] canonical = new byte[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            int cell = cells[i];
+            canonical[i] = (byte) to_canonical[game.getNumber(cell / size, cell % size)];
+        }
+        return canonical;
+    }
+
+    /**
+     * Fill the blanks of the original game from a canonical solution.
+     * @return false if the game refused a number, the solution does not fit. The game is
+     * left as it was.
+     */
+    boolean restore(final byte[] canonical, final SudokuGame game) {
+        int[] assigned = new int[cells.length];
+        int count = 0;
+
+        for (int i = 0; i < cells.length; i++) {
+            int row = cells[i] / size;
+            int col = cells[i] % size;
+            int num = to_original[canonical[i]];
+
+            if (game.getNumber(row, col) == num)
+                continue;
+
+            switch (game.assign(row, col, num)) {
+                case OK:
+                case SOLVED:
+                    assigned[count++] = cells[i];
+                    break;
+                default:
+                    while (0 < count) {
+                        int cell = assigned[--count];
+                        game.unassign(cell / size, cell % size);
+                    }
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Canonical board packed into longs, as few bits per cell as the numbers need.
+     */
+    static final class Key implements Comparable<Key> {
+        // size and count of numbers, boards of different shapes never share a key
+        private final int shape;
+        private final long[] words;
+        private final int hash;
+
+        /**
+         * @param numbers how many numbers the board has, canonical numbers go up to it.
+         */
+        Key(final int size, final int numbers, final int[] canonical) {
+            int bits = Math.max(1, Long.SIZE - Long.numberOfLeadingZeros(numbers));
+            int per_word = Long.SIZE / bits;
+
+            this.shape = size << 8 | numbers;
+            this.words = new long[(canonical.length + per_word - 1) / per_word];
+            for (int i = 0; i < canonical.length; i++)
+                words[i / per_word] |= (long) canonical[i] << (i % per_word * bits);
+            this.hash = 31 * shape + Arrays.hashCode(words);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other)
+                return true;
+            if (!(other instanceof Key))
+                return false;
+
+            Key key = (Key) other;
+            return hash == key.hash && shape == key.shape && Arrays.equals(words, key.words);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int order = Integer.compare(shape, other.shape);
+            return order != 0 ? order : Arrays.compareUnsigned(words, other.words);
+        }
+    }
+}
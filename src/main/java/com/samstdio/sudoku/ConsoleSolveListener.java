@@ -0,0 +1,91 @@
+package com.samstdio.sudoku;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * Prints solver progress, buffered so the solver does not wait on the console for every line.
+ * The buffer is flushed when the solve finishes.
+ */
+public class ConsoleSolveListener implements SolveListener {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final PrintWriter out;
+    private int counter;
+
+    public ConsoleSolveListener() {
+        this(System.out);
+    }
+
+    public ConsoleSolveListener(OutputStream stream) {
+        this.out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(stream), BUFFER_SIZE));
+    }
+
+    @Override
+    public void onTry(int row, int col) {
+        counter++;
+        out.print('[');
+        out.print(counter);
+        out.print("] Trying (");
+        out.print(row);
+        out.print(") row, (");
+        out.print(col);
+        out.println(") col");
+    }
+
+    @Override
+    public void onAssign(int row, int col, int num) {
+        out.print("\t(");
+        out.print(row);
+        out.print(") row (");
+        out.print(col);
+        out.print(") col is (");
+        out.print(num);
+        out.println(')');
+    }
+
+    @Override
+    public void onUnassign(int row, int col) {
+        out.print("\tTake back (");
+        out.print(row);
+        out.print(") row (");
+        out.print(col);
+        out.println(") col");
+    }
+
+    @Override
+    public void onEliminate(Technique technique) {
+        out.print("\tRemoved candidates by ");
+        out.println(technique);
+    }
+
+    @Override
+    public void onStuck(int row, int col) {
+        out.print("\tCannot solve (");
+        out.print(row);
+        out.print(") row (");
+        out.print(col);
+        out.println(") col");
+    }
+
+    @Override
+    public void onFinish(SudokuGame game, boolean solved) {
+        if (solved) {
+            out.println("Solved!");
+
+            for (int row = 0; row < game.getSize(); row++) {
+                for (int col = 0; col < game.getSize(); col++) {
+                    out.print(game.getNumber(row, col));
+                    out.print('\t');
+                }
+                out.println();
+            }
+        } else {
+            out.println("Not solved.");
+        }
+
+        out.flush();
+    }
+}
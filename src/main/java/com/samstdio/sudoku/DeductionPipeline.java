@@ -0,0 +1,66 @@
+package com.samstdio.sudoku;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Deduction stages in order, cheapest first.
+ *
+ * apply runs the stages until one removes a candidate and returns right away, so the caller
+ * can place the singles it uncovered before the more expensive stages are tried.
+ * Calling apply until it returns null reaches the fixpoint of the whole pipeline.
+ */
+class DeductionPipeline {
+    private final List<DeductionStage> stages;
+
+    DeductionPipeline(final List<DeductionStage> stages) {
+        this.stages = Collections.unmodifiableList(new ArrayList<>(stages));
+    }
+
+    /**
+     * Hidden singles, naked and hidden pairs, naked and hidden triples, pointing pairs and
+     * box/line reduction.
+     */
+    static DeductionPipeline standard() {
+        return new DeductionPipeline(Arrays.asList(
+                new HiddenSingleStage(),
+                new NakedSubsetStage(2),
+                new HiddenSubsetStage(2),
+                new PointingStage(),
+                new BoxLineReductionStage(),
+                new NakedSubsetStage(3),
+                new HiddenSubsetStage(3)
+        ));
+    }
+
+    /**
+     * The standard stages up to difficulty. A puzzle the human solver finishes with them
+     * needs nothing harder.
+     */
+    static DeductionPipeline upTo(final Difficulty difficulty) {
+        List<DeductionStage> stages = new ArrayList<>();
+
+        for (DeductionStage stage : standard().stages())
+            if (stage.technique().getDifficulty().compareTo(difficulty) <= 0)
+                stages.add(stage);
+
+        return new DeductionPipeline(stages);
+    }
+
+    List<DeductionStage> stages() {
+        return stages;
+    }
+
+    /**
+     * @return technique of the stage that removed a candidate, null if none did.
+     */
+    Technique apply(final CandidateGrid grid) {
+        for (DeductionStage stage : stages)
+            if (stage.apply(grid))
+                return stage.technique();
+
+        return null;
+    }
+}
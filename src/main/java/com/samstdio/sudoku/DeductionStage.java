@@ -0,0 +1,13 @@
+package com.samstdio.sudoku;
+
+/**
+ * One human solving technique, removing candidates from the grid.
+ */
+interface DeductionStage {
+    /**
+     * @return true if a candidate was removed.
+     */
+    boolean apply(CandidateGrid grid);
+
+    Technique technique();
+}
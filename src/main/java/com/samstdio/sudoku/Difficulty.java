@@ -0,0 +1,15 @@
+package com.samstdio.sudoku;
+
+/**
+ * How hard a puzzle is for a human, from the hardest technique it needs.
+ */
+public enum Difficulty {
+    // naked and hidden singles
+    EASY,
+    // pairs and the section/line intersections
+    MEDIUM,
+    // triples
+    HARD,
+    // the human solver's techniques get stuck, it takes search
+    EXPERT
+}
@@ -0,0 +1,154 @@
+package com.samstdio.sudoku;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * One step of a Flow pipeline, applying a function on its own worker threads.
+ *
+ * At most buffer items are requested from upstream and not yet handed on, one more is
+ * requested as each is done. Results go out through the SubmissionPublisher buffer of each
+ * subscriber, also buffer items, and a worker finding it full waits, which holds back the
+ * requests upstream. So a stage holds at most about twice buffer items however fast its
+ * upstream is. With more than one worker, items leave in the order they finish.
+ */
+final class FlowStage<T, R> extends SubmissionPublisher<R> implements Flow.Processor<T, R> {
+    private final Function<T, R> function;
+    private final ExecutorService workers;
+    private final int buffer;
+    // items requested from upstream and not yet handed on
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private Flow.Subscription subscription;
+    private boolean open;
+    private volatile boolean upstream_done;
+
+    /**
+     * @param open false to hold the first request until open() is called.
+     */
+    FlowStage(String name, Function<T, R> function, int parallelism, int buffer, boolean open) {
+        // delivery has its own thread, so workers waiting on a full buffer never starve it.
+        // It is not shut down, a slow subscriber may still be taking what is buffered.
+        super(idle(new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                threads(name + "-delivery"))), buffer);
+
+        if (parallelism < 1 || buffer < 1)
+            throw new IllegalArgumentException("parallelism and buffer should be positive");
+
+        this.function = function;
+        this.workers = Executors.newFixedThreadPool(parallelism, threads(name));
+        this.buffer = buffer;
+        this.open = open;
+    }
+
+    private static ThreadPoolExecutor idle(final ThreadPoolExecutor executor) {
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ThreadFactory threads(final String name) {
+        AtomicInteger thread_id = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + thread_id.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Start requesting from upstream, once there is somewhere to send results.
+     */
+    synchronized void open() {
+        if (!open && subscription != null)
+            subscription.request(buffer);
+        open = true;
+    }
+
+    @Override
+    public synchronized void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+
+        this.subscription = subscription;
+        if (open)
+            subscription.request(buffer);
+    }
+
+    @Override
+    public void onNext(T item) {
+        if (finished.get())
+            return;
+
+        pending.incrementAndGet();
+        workers.execute(() -> apply(item));
+    }
+
+    private void apply(final T item) {
+        try {
+            R result = function.apply(item);
+            if (result != null && !isClosed())
+                submit(result);
+        } catch (RuntimeException e) {
+            subscription.cancel();
+            fail(e);
+            return;
+        }
+
+        subscription.request(1);
+        if (pending.decrementAndGet() == 0 && upstream_done)
+            finish();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        fail(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        upstream_done = true;
+        if (pending.get() == 0)
+            finish();
+    }
+
+    /**
+     * Complete downstream after everything handed on, and let the threads go.
+     */
+    private void finish() {
+        if (finished.compareAndSet(false, true)) {
+            close();
+            workers.shutdown();
+        }
+    }
+
+    private void fail(final Throwable throwable) {
+        if (finished.compareAndSet(false, true)) {
+            closeExceptionally(throwable);
+            workers.shutdown();
+        }
+    }
+
+    /**
+     * Stop at once: cancel upstream, interrupt the workers and fail downstream.
+     */
+    void cancel(final Throwable reason) {
+        synchronized (this) {
+            if (subscription != null)
+                subscription.cancel();
+        }
+        workers.shutdownNow();
+        fail(reason);
+    }
+}
@@ -0,0 +1,44 @@
+package com.samstdio.sudoku;
+
+/**
+ * A number that has only one place left in a row, column or section goes there,
+ * so every other candidate of that cell is removed.
+ */
+class HiddenSingleStage implements DeductionStage {
+    @Override
+    public Technique technique() {
+        return Technique.HIDDEN_SINGLE;
+    }
+
+    @Override
+    public boolean apply(final CandidateGrid grid) {
+        boolean changed = false;
+
+        for (int u = 0; u < grid.unitCount(); u++) {
+            int[] unit = grid.unit(u);
+
+            // fold the unit : numbers seen at least once, and at least twice
+            long once = 0;
+            long twice = 0;
+            for (int cell : unit) {
+                long mask = grid.mask(cell);
+                twice |= once & mask;
+                once |= mask;
+            }
+
+            long singles = once & ~twice;
+            if (singles == 0)
+                continue;
+
+            for (int cell : unit) {
+                long mask = grid.mask(cell);
+                long single = mask & singles;
+
+                if (single != 0)
+                    changed |= grid.eliminate(cell, mask & ~single);
+            }
+        }
+
+        return changed;
+    }
+}
@@ -0,0 +1,92 @@
+package com.samstdio.sudoku;
+
+/**
+ * Hidden pairs / triples : when k numbers of a unit fit only in the same k cells,
+ * those cells hold those numbers and lose every other candidate.
+ */
+class HiddenSubsetStage implements DeductionStage {
+    private final int k;
+    private final Technique technique;
+
+    // numbers of the current unit with 2..k places, and the places as unit positions
+    private int[] numbers = new int[0];
+    private long[] places = new long[0];
+    private int found;
+
+    HiddenSubsetStage(final int k) {
+        if (k != 2 && k != 3)
+            throw new IllegalArgumentException("pairs and triples only : " + k);
+
+        this.k = k;
+        this.technique = k == 2 ? Technique.HIDDEN_PAIR : Technique.HIDDEN_TRIPLE;
+    }
+
+    @Override
+    public Technique technique() {
+        return technique;
+    }
+
+    @Override
+    public boolean apply(final CandidateGrid grid) {
+        if (numbers.length != grid.size()) {
+            numbers = new int[grid.size()];
+            places = new long[grid.size()];
+        }
+
+        boolean changed = false;
+
+        for (int u = 0; u < grid.unitCount(); u++) {
+            int[] unit = grid.unit(u);
+
+            long union = 0;
+            for (int cell : unit)
+                union |= grid.mask(cell);
+
+            found = 0;
+            for (long rest = union; rest != 0; rest &= rest - 1) {
+                int num = Long.numberOfTrailingZeros(rest);
+                long place = 0L;
+
+                for (int i = 0; i < unit.length; i++)
+                    if ((grid.mask(unit[i]) & (1L << num)) != 0)
+                        place |= 1L << i;
+
+                int count = Long.bitCount(place);
+                if (count >= 2 && count <= k) {
+                    numbers[found] = num;
+                    places[found] = place;
+                    found++;
+                }
+            }
+
+            if (found >= k)
+                changed |= search(grid, unit, 0, 0, 0L, 0L);
+        }
+
+        return changed;
+    }
+
+    private boolean search(final CandidateGrid grid, final int[] unit, final int start, final int depth,
+                           final long union, final long chosen) {
+        if (depth == k) {
+            if (Long.bitCount(union) != k)
+                return false;
+
+            boolean changed = false;
+            for (long rest = union; rest != 0; rest &= rest - 1)
+                changed |= grid.eliminate(unit[Long.numberOfTrailingZeros(rest)], ~chosen);
+
+            return changed;
+        }
+
+        boolean changed = false;
+        for (int j = start; j < found; j++) {
+            long next = union | places[j];
+
+            if (Long.bitCount(next) <= k)
+                changed |= search(grid, unit, j + 1, depth + 1, next, chosen | (1L << numbers[j]));
+        }
+
+        return changed;
+    }
+}
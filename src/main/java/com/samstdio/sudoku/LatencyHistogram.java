@@ -0,0 +1,111 @@
+package com.samstdio.sudoku;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies in nanoseconds counted into log-linear buckets, safe to share between threads.
+ *
+ * Each power of two is split into SUB_BUCKETS linear buckets, so a percentile is off by at
+ * most 1 / SUB_BUCKETS of its value, and recording is an index computation and one atomic
+ * increment however many latencies there are.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray((Long.SIZE - SUB_BITS + 1) * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+
+    public void record(final long nanos) {
+        long value = Math.max(0, nanos);
+
+        buckets.incrementAndGet(index(value));
+        count.increment();
+        total.add(value);
+    }
+
+    private static int index(final long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+
+        // the top SUB_BITS + 1 bits of value pick the bucket
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BITS - 1;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * @return largest value counted into bucket index.
+     */
+    private static long upperBound(final int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+
+        int shift = index / SUB_BUCKETS - 1;
+        long low = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return low + (1L << shift) - 1;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return mean latency, 0 before any is recorded.
+     */
+    public long getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : total.sum() / n;
+    }
+
+    /**
+     * @param percentile 0 to 100.
+     * @return latency that percentile of the recorded latencies do not exceed, rounded up to
+     * its bucket. 0 before any is recorded.
+     */
+    public long getPercentile(final double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("percentile should be between 0 and 100");
+
+        long[] counts = new long[buckets.length()];
+        long n = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            n += counts[i];
+        }
+        if (n == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return upperBound(i);
+        }
+
+        return upperBound(counts.length - 1);
+    }
+
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++)
+            buckets.set(i, 0);
+        count.reset();
+        total.reset();
+    }
+
+    /**
+     * @return count, mean and the usual percentiles in microseconds, on one line.
+     */
+    @Override
+    public String toString() {
+        return "count=" + getCount()
+                + " mean=" + getMean() / 1000
+                + "us p50=" + getPercentile(50) / 1000
+                + "us p90=" + getPercentile(90) / 1000
+                + "us p99=" + getPercentile(99) / 1000
+                + "us p999=" + getPercentile(99.9) / 1000
+                + "us max=" + getPercentile(100) / 1000 + "us";
+    }
+}
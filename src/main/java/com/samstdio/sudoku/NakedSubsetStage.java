@@ -0,0 +1,84 @@
+package com.samstdio.sudoku;
+
+/**
+ * Naked pairs / triples : when k cells of a unit have only k candidates between them,
+ * those numbers go in those cells and are removed from the rest of the unit.
+ */
+class NakedSubsetStage implements DeductionStage {
+    private final int k;
+    private final Technique technique;
+
+    // cells of the current unit with 2..k candidates, as positions in the unit and masks
+    private int[] positions = new int[0];
+    private long[] masks = new long[0];
+    private int found;
+
+    NakedSubsetStage(final int k) {
+        if (k != 2 && k != 3)
+            throw new IllegalArgumentException("pairs and triples only : " + k);
+
+        this.k = k;
+        this.technique = k == 2 ? Technique.NAKED_PAIR : Technique.NAKED_TRIPLE;
+    }
+
+    @Override
+    public Technique technique() {
+        return technique;
+    }
+
+    @Override
+    public boolean apply(final CandidateGrid grid) {
+        if (positions.length != grid.size()) {
+            positions = new int[grid.size()];
+            masks = new long[grid.size()];
+        }
+
+        boolean changed = false;
+
+        for (int u = 0; u < grid.unitCount(); u++) {
+            int[] unit = grid.unit(u);
+
+            found = 0;
+            for (int i = 0; i < unit.length; i++) {
+                long mask = grid.mask(unit[i]);
+                int count = Long.bitCount(mask);
+
+                if (count >= 2 && count <= k) {
+                    positions[found] = i;
+                    masks[found] = mask;
+                    found++;
+                }
+            }
+
+            if (found >= k)
+                changed |= search(grid, unit, 0, 0, 0, 0L);
+        }
+
+        return changed;
+    }
+
+    private boolean search(final CandidateGrid grid, final int[] unit, final int start, final int depth,
+                           final long union, final long chosen) {
+        if (depth == k) {
+            if (Long.bitCount(union) != k)
+                return false;
+
+            boolean changed = false;
+            for (int i = 0; i < unit.length; i++)
+                if ((chosen & (1L << i)) == 0)
+                    changed |= grid.eliminate(unit[i], union);
+
+            return changed;
+        }
+
+        boolean changed = false;
+        for (int j = start; j < found; j++) {
+            long next = union | masks[j];
+
+            if (Long.bitCount(next) <= k)
+                changed |= search(grid, unit, j + 1, depth + 1, next, chosen | (1L << positions[j]));
+        }
+
+        return changed;
+    }
+}
@@ -0,0 +1,57 @@
+package com.samstdio.sudoku;
+
+/**
+ * Pointing pairs / triples : when a number's places in a section all lie in one row or column,
+ * the number is removed from that row or column outside the section.
+ */
+class PointingStage implements DeductionStage {
+    @Override
+    public Technique technique() {
+        return Technique.POINTING;
+    }
+
+    @Override
+    public boolean apply(final CandidateGrid grid) {
+        boolean changed = false;
+
+        for (int sec = 0; sec < grid.size(); sec++) {
+            int[] section = grid.section(sec);
+
+            long union = 0;
+            for (int cell : section)
+                union |= grid.mask(cell);
+
+            for (long rest = union; rest != 0; rest &= rest - 1) {
+                long bit = Long.lowestOneBit(rest);
+                int row = -1;
+                int col = -1;
+
+                for (int cell : section) {
+                    if ((grid.mask(cell) & bit) == 0)
+                        continue;
+
+                    row = row == -1 || row == grid.rowOf(cell) ? grid.rowOf(cell) : -2;
+                    col = col == -1 || col == grid.columnOf(cell) ? grid.columnOf(cell) : -2;
+                }
+
+                if (row >= 0)
+                    changed |= eliminateOutside(grid, grid.row(row), sec, bit);
+                if (col >= 0)
+                    changed |= eliminateOutside(grid, grid.column(col), sec, bit);
+            }
+        }
+
+        return changed;
+    }
+
+    private static boolean eliminateOutside(final CandidateGrid grid, final int[] line, final int sec,
+                                            final long bit) {
+        boolean changed = false;
+
+        for (int cell : line)
+            if (grid.sectionOf(cell) != sec)
+                changed |= grid.eliminate(cell, bit);
+
+        return changed;
+    }
+}
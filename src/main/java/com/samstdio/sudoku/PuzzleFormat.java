@@ -0,0 +1,88 @@
+package com.samstdio.sudoku;
+
+/**
+ * One puzzle per line, one character per cell, row by row.
+ * '.' or '0' is a blank, '1'..'9' are themselves, 'A'..'Z' are 10..35 for boards above 9x9.
+ */
+final class PuzzleFormat {
+    static final byte BLANK = '.';
+
+    private PuzzleFormat() {
+    }
+
+    /**
+     * @return the number for a cell character, 0 for a blank, -1 if it is not a cell character.
+     */
+    static int decode(final byte c) {
+        if (c == '.' || c == '0')
+            return 0;
+        if (c >= '1' && c <= '9')
+            return c - '0';
+        if (c >= 'A' && c <= 'Z')
+            return c - 'A' + 10;
+        if (c >= 'a' && c <= 'z')
+            return c - 'a' + 10;
+
+        return -1;
+    }
+
+    /**
+     * @return the cell character for a number, '.' for 0.
+     */
+    static byte encode(final int num) {
+        if (num == 0)
+            return BLANK;
+        if (num <= 9)
+            return (byte) ('0' + num);
+
+        return (byte) ('A' + num - 10);
+    }
+
+    /**
+     * @return the board of one puzzle line, 0 for blanks.
+     * @throws IllegalArgumentException if the line is not a square board of cell characters.
+     */
+    static int[][] parse(final CharSequence line) {
+        int length = line.length();
+        int size = (int) Math.sqrt(length);
+        if (size * size != length)
+            throw new IllegalArgumentException(length + " cells is not a square board");
+
+        int[][] board = new int[size][size];
+        for (int i = 0; i < length; i++) {
+            int num = decode((byte) line.charAt(i));
+            if (num < 0 || num > size)
+                throw new IllegalArgumentException("bad cell at " + (i + 1));
+            board[i / size][i % size] = num;
+        }
+
+        return board;
+    }
+
+    /**
+     * @return the board of game as one puzzle line, blanks included.
+     */
+    static String format(final SudokuGame game) {
+        int size = game.getSize();
+        StringBuilder line = new StringBuilder(size * size);
+
+        for (int row = 0; row < size; row++)
+            for (int col = 0; col < size; col++)
+                line.append((char) encode(game.getNumber(row, col)));
+
+        return line.toString();
+    }
+
+    /**
+     * @return board as one puzzle line, blanks included.
+     */
+    static String format(final int[][] board) {
+        StringBuilder line = new StringBuilder(board.length * board.length);
+
+        for (int[] row : board)
+            for (int num : row)
+                line.append((char) encode(num));
+
+        return line.toString();
+    }
+}
@@ -0,0 +1,254 @@
+package com.samstdio.sudoku;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Generates puzzles with a unique solution, graded by the human techniques they need.
+ *
+ * Puzzle i draws from its own SplittableRandom seeded from the generator seed and i, so a seed
+ * gives the same puzzles however many threads generate them.
+ * A full grid starts as random permutations in the diagonal sections, which share no peers,
+ * and is completed by Dancing Links. Clues are then taken out in random order, each one staying
+ * out only if the puzzle keeps a unique solution and stays within the target difficulty.
+ * A puzzle the human solver finishes by deduction alone has a unique solution, so solutions are
+ * only counted when the target is EXPERT or any difficulty.
+ */
+public class PuzzleGenerator {
+    // spreads the seeds of consecutive puzzles
+    private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+    private static final int MAX_ATTEMPTS = 1000;
+
+    private final long seed;
+    private final int size;
+    private final int box;
+
+    public PuzzleGenerator(long seed) {
+        this(seed, 9);
+    }
+
+    /**
+     * @param seed puzzles are reproducible from it.
+     * @param size board size, a square number below 64.
+     */
+    public PuzzleGenerator(long seed, int size) {
+        this.box = (int) Math.round(Math.sqrt(size));
+
+        if (box * box != size || size >= Long.SIZE)
+            throw new IllegalArgumentException("board size should be a square number below " + Long.SIZE + " : " + size);
+
+        this.seed = seed;
+        this.size = size;
+    }
+
+    /**
+     * Generate puzzles 0 .. count - 1 in parallel. Use forEachOrdered to keep them in order.
+     * @param target difficulty of every puzzle, null for any.
+     */
+    public Stream<Puzzle> generateAll(long count, Difficulty target) {
+        return LongStream.range(0, count).parallel().mapToObj(index -> generate(index, target));
+    }
+
+    /**
+     * @param index puzzle number, the same index and seed always give the same puzzle.
+     * @param target difficulty of the puzzle, null for any.
+     * @throws IllegalStateException if no grid gives a puzzle of the target difficulty.
+     */
+    public Puzzle generate(long index, Difficulty target) {
+        SplittableRandom random = new SplittableRandom(seed + index * SEED_STEP);
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Puzzle puzzle = attempt(index, random, target);
+
+            if (target == null || puzzle.getDifficulty() == target)
+                return puzzle;
+        }
+
+        throw new IllegalStateException("no " + target + " puzzle in " + MAX_ATTEMPTS + " grids for puzzle " + index);
+    }
+
+    private Puzzle attempt(long index, SplittableRandom random, Difficulty target) {
+        byte[] solution = fullGrid(random);
+        byte[] cells = solution.clone();
+        // the game writes into cells
+        SudokuGame game = new SudokuGame(cells, null, size, 0);
+        boolean count = target == null || target == Difficulty.EXPERT;
+        SolutionCounter counter = count ? new SudokuSolverDancingLinks(game) : null;
+
+        for (int cell : shuffledCells(random)) {
+            int row = cell / size;
+            int col = cell % size;
+            int num = cells[cell];
+
+            game.unassign(row, col);
+
+            // deduction is cheaper than counting, and settles uniqueness when it finishes
+            boolean removable = count
+                    ? solvable(cells, Difficulty.EASY) || counter.countSolutions() == SolutionCount.UNIQUE
+                    : solvable(cells, target);
+
+            if (!removable)
+                game.assign(row, col, num);
+        }
+
+        return new Puzzle(index, unpack(cells), unpack(solution), grade(cells));
+    }
+
+    private byte[] fullGrid(SplittableRandom random) {
+        byte[] cells = new byte[size * size];
+
+        for (int sec = 0; sec < box; sec++) {
+            int[] numbers = shuffle(random, size);
+
+            for (int i = 0; i < size; i++)
+                cells[(sec * box + i / box) * size + sec * box + i % box] = (byte) (numbers[i] + 1);
+        }
+
+        if (!new SudokuSolverDancingLinks(new SudokuGame(cells, null, size, 0)).solve())
+            throw new IllegalStateException("diagonal sections cannot be completed");
+
+        return cells;
+    }
+
+    private int[] shuffledCells(SplittableRandom random) {
+        return shuffle(random, size * size);
+    }
+
+    /**
+     * @return 0 .. n - 1 in random order.
+     */
+    private static int[] shuffle(SplittableRandom random, int n) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++)
+            values[i] = i;
+
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+
+        return values;
+    }
+
+    private int[][] unpack(byte[] cells) {
+        int[][] board = new int[size][size];
+
+        for (int cell = 0; cell < cells.length; cell++)
+            board[cell / size][cell % size] = cells[cell];
+
+        return board;
+    }
+
+    private Difficulty grade(byte[] cells) {
+        return grade(new SudokuGame(cells.clone(), null, size, 0));
+    }
+
+    /**
+     * @return true if techniques up to difficulty finish the puzzle, so it is unique too.
+     */
+    private boolean solvable(byte[] cells, Difficulty difficulty) {
+        SudokuGame game = new SudokuGame(cells.clone(), null, size, 0);
+
+        return new SudokuSolverHuman(game, DeductionPipeline.upTo(difficulty)).solve();
+    }
+
+    /**
+     * Grade a puzzle by the hardest technique the human solver needs for it.
+     * A puzzle with more than one solution grades EXPERT, deduction alone cannot finish it.
+     * @param board size x size numbers, 0 where blank. Not modified.
+     */
+    public static Difficulty grade(int[][] board) {
+        return grade(new SudokuGame(board, null, board.length, 0));
+    }
+
+    private static Difficulty grade(SudokuGame game) {
+        SudokuSolverHuman solver = new SudokuSolverHuman(game, DeductionPipeline.standard());
+        GradeListener listener = new GradeListener();
+
+        solver.setListener(listener);
+
+        return solver.solve() ? listener.hardest : Difficulty.EXPERT;
+    }
+
+    /**
+     * Generate puzzles into a file, one line per puzzle.
+     * usage : PuzzleGenerator output count [difficulty] [seed]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("usage : PuzzleGenerator output count [EASY|MEDIUM|HARD|EXPERT] [seed]");
+            return;
+        }
+
+        long count = Long.parseLong(args[1]);
+        Difficulty target = args.length > 2 ? Difficulty.valueOf(args[2].toUpperCase()) : null;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+        long start = System.nanoTime();
+
+        try (PuzzleWriter writer = new PuzzleWriter(Paths.get(args[0]))) {
+            new PuzzleGenerator(seed).generateAll(count, target).forEachOrdered(puzzle -> {
+                try {
+                    writer.write(puzzle.getBoard());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println(count + " puzzles in " + millis + " ms, seed " + seed);
+    }
+
+    public static final class Puzzle {
+        private final long index;
+        private final int[][] board;
+        private final int[][] solution;
+        private final Difficulty difficulty;
+
+        Puzzle(long index, int[][] board, int[][] solution, Difficulty difficulty) {
+            this.index = index;
+            this.board = board;
+            this.solution = solution;
+            this.difficulty = difficulty;
+        }
+
+        public long getIndex() {
+            return index;
+        }
+
+        /**
+         * @return the clues, 0 where blank.
+         */
+        public int[][] getBoard() {
+            return board;
+        }
+
+        public int[][] getSolution() {
+            return solution;
+        }
+
+        public Difficulty getDifficulty() {
+            return difficulty;
+        }
+    }
+
+    /**
+     * Keeps the hardest technique the human solver used.
+     */
+    private static final class GradeListener implements SolveListener {
+        private Difficulty hardest = Difficulty.EASY;
+
+        @Override
+        public void onEliminate(Technique technique) {
+            if (technique.getDifficulty().compareTo(hardest) > 0)
+                hardest = technique.getDifficulty();
+        }
+    }
+}
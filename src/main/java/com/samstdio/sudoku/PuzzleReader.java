@@ -0,0 +1,179 @@
+package com.samstdio.sudoku;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads puzzles in the line format of PuzzleFormat from a memory-mapped file.
+ *
+ * The file is mapped in windows of up to 1 GB, so files larger than 2 GB work, and cells are
+ * decoded straight from the mapped bytes without building a String per line.
+ * Empty lines and lines starting with '#' are skipped; anything after the cells on a line
+ * (a trailing solution, a comment) is ignored.
+ */
+public class PuzzleReader implements Closeable {
+    private static final long DEFAULT_WINDOW = 1L << 30;
+
+    private final FileChannel channel;
+    private final long file_size;
+    private final long window;
+    private final int size;
+
+    private MappedByteBuffer buffer;
+    private long window_start;
+    private long line;
+
+    public PuzzleReader(Path path) throws IOException {
+        this(path, 9);
+    }
+
+    public PuzzleReader(Path path, int size) throws IOException {
+        this(path, size, DEFAULT_WINDOW);
+    }
+
+    PuzzleReader(Path path, int size, long window) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.file_size = channel.size();
+        this.window = window;
+        this.size = size;
+
+        map(0);
+    }
+
+    private void map(final long position) throws IOException {
+        window_start = position;
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(window, file_size - position));
+    }
+
+    /**
+     * Decode the next puzzle into board.
+     * @param board size x size array, overwritten.
+     * @return false at the end of the file.
+     * @throws IllegalArgumentException if a line is too short or has a character that is not a cell.
+     */
+    public boolean next(final int[][] board) throws IOException {
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                long window_end = window_start + buffer.limit();
+                if (window_end >= file_size)
+                    return false;
+
+                map(window_end);
+                continue;
+            }
+
+            int start = buffer.position();
+            int end = indexOfNewLine(start);
+
+            if (end < 0) {
+                // the line continues in the next window
+                if (window_start + buffer.limit() < file_size) {
+                    if (start == 0)
+                        throw new IllegalArgumentException("line " + (line + 1) + " is longer than the mapping window");
+
+                    map(window_start + start);
+                    continue;
+                }
+
+                end = buffer.limit();
+            }
+
+            buffer.position(Math.min(end + 1, buffer.limit()));
+            line++;
+
+            int length = end - start;
+            if (length > 0 && buffer.get(end - 1) == '\r')
+                length--;
+
+            if (length == 0 || buffer.get(start) == '#')
+                continue;
+
+            decode(start, length, board);
+            return true;
+        }
+    }
+
+    private int indexOfNewLine(final int from) {
+        for (int i = from; i < buffer.limit(); i++)
+            if (buffer.get(i) == '\n')
+                return i;
+
+        return -1;
+    }
+
+    private void decode(final int start, final int length, final int[][] board) {
+        if (length < size * size)
+            throw new IllegalArgumentException("line " + line + " has " + length + " cells, expected " + size * size);
+
+        int i = start;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int num = PuzzleFormat.decode(buffer.get(i++));
+
+                if (num < 0 || num > size)
+                    throw new IllegalArgumentException("line " + line + " has a bad cell at " + (i - start));
+
+                board[row][col] = num;
+            }
+        }
+    }
+
+    /**
+     * @return number of lines read so far, including skipped ones.
+     */
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * Remaining puzzles as a sequential stream, a new board for each puzzle.
+     */
+    public Stream<int[][]> boards() {
+        Iterator<int[][]> iterator = new Iterator<int[][]>() {
+            private int[][] next_board;
+
+            @Override
+            public boolean hasNext() {
+                if (next_board == null) {
+                    int[][] board = new int[size][size];
+                    try {
+                        if (PuzzleReader.this.next(board))
+                            next_board = board;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return next_board != null;
+            }
+
+            @Override
+            public int[][] next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+
+                int[][] board = next_board;
+                next_board = null;
+                return board;
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
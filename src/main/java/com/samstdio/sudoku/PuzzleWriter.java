@@ -0,0 +1,79 @@
+package com.samstdio.sudoku;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes boards in the line format of PuzzleFormat through a buffered channel.
+ * Cells are encoded straight into a direct buffer that goes to the channel when full.
+ */
+public class PuzzleWriter implements Closeable, Flushable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    public PuzzleWriter(Path path) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    public PuzzleWriter(WritableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    public void write(final int[][] board) throws IOException {
+        int size = board.length;
+        reserve(size * size + 1);
+
+        for (int[] row : board)
+            for (int num : row)
+                buffer.put(PuzzleFormat.encode(num));
+
+        buffer.put((byte) '\n');
+    }
+
+    public void write(final SudokuGame game) throws IOException {
+        int size = game.getSize();
+        reserve(size * size + 1);
+
+        for (int row = 0; row < size; row++)
+            for (int col = 0; col < size; col++)
+                buffer.put(game.isBlank(row, col) ? PuzzleFormat.BLANK : PuzzleFormat.encode(game.getNumber(row, col)));
+
+        buffer.put((byte) '\n');
+    }
+
+    private void reserve(final int bytes) throws IOException {
+        if (buffer.remaining() < bytes)
+            drain();
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+}
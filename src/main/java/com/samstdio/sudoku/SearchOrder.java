@@ -0,0 +1,11 @@
+package com.samstdio.sudoku;
+
+/**
+ * Order in which a search expands blanks.
+ */
+public enum SearchOrder {
+    // blanks in board order, as returned by SudokuGame.getBlankPosition()
+    SEQUENTIAL,
+    // always the blank with the fewest candidates left (minimum remaining values)
+    MRV
+}
@@ -0,0 +1,11 @@
+package com.samstdio.sudoku;
+
+/**
+ * How many solutions a board has, counted up to two.
+ */
+public enum SolutionCount {
+    NONE,
+    UNIQUE,
+    // two or more, counting stops at the second
+    MULTIPLE
+}
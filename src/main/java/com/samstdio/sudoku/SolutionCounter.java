@@ -0,0 +1,11 @@
+package com.samstdio.sudoku;
+
+/**
+ * Solver that can tell whether the board of its game has exactly one solution.
+ */
+public interface SolutionCounter {
+    /**
+     * Search until a second solution turns up. The game is left as it is.
+     */
+    SolutionCount countSolutions();
+}
@@ -0,0 +1,41 @@
+package com.samstdio.sudoku;
+
+import java.time.Duration;
+
+/**
+ * Limits of one solve : search nodes (SolveStats.getNodes) and wall-clock time.
+ */
+public final class SolveBudget {
+    public static final SolveBudget UNLIMITED = new SolveBudget(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private final long max_nodes;
+    private final long timeout_nanos;
+
+    /**
+     * @param max_nodes nodes a solve may visit, Long.MAX_VALUE for no limit.
+     * @param timeout_nanos time a solve may take, Long.MAX_VALUE for no limit.
+     */
+    public SolveBudget(long max_nodes, long timeout_nanos) {
+        if (max_nodes < 0 || timeout_nanos < 0)
+            throw new IllegalArgumentException("budget should not be negative");
+
+        this.max_nodes = max_nodes;
+        this.timeout_nanos = timeout_nanos;
+    }
+
+    public static SolveBudget ofNodes(long max_nodes) {
+        return new SolveBudget(max_nodes, Long.MAX_VALUE);
+    }
+
+    public static SolveBudget ofTimeout(Duration timeout) {
+        return new SolveBudget(Long.MAX_VALUE, timeout.toNanos());
+    }
+
+    public long getMaxNodes() {
+        return max_nodes;
+    }
+
+    public long getTimeoutNanos() {
+        return timeout_nanos;
+    }
+}
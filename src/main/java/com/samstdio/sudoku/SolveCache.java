@@ -0,0 +1,163 @@
+package com.samstdio.sudoku;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Solutions of puzzles seen before, shared by any number of solvers and threads.
+ *
+ * Puzzles are stored by their CanonicalForm, so a puzzle equal to a stored one up to
+ * relabeling, transposition or reordering of lines hits too. The cache holds about capacity
+ * puzzles, split evenly over stripes with a lock each so threads rarely wait on each other.
+ * When a stripe is full its least recently used puzzle goes, or its oldest one with
+ * Eviction.FIFO. Use it through SudokuSolverCached.
+ * Boards without a solution are remembered as well.
+ */
+public final class SolveCache {
+    private static final int DEFAULT_STRIPES = 16;
+    private static final byte[] UNSOLVABLE = new byte[0];
+
+    public enum Eviction {
+        // drop the puzzle looked up longest ago
+        LRU,
+        // drop the puzzle stored longest ago
+        FIFO
+    }
+
+    private final Stripe[] stripes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public SolveCache(int capacity) {
+        this(capacity, DEFAULT_STRIPES, Eviction.LRU);
+    }
+
+    /**
+     * @param capacity puzzles kept, rounded up to fill every stripe alike.
+     * @param stripes independently locked parts, rounded up to a power of two.
+     * @param eviction which puzzle a full stripe drops.
+     */
+    public SolveCache(int capacity, int stripes, Eviction eviction) {
+        if (capacity < 1 || stripes < 1)
+            throw new IllegalArgumentException("capacity and stripes should be positive");
+
+        int count = Integer.highestOneBit(Math.min(stripes, capacity) * 2 - 1);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++)
+            this.stripes[i] = new Stripe((capacity + count - 1) / count, eviction == Eviction.LRU);
+    }
+
+    /**
+     * Fill the blanks of game from a stored solution.
+     * @return SOLVED or UNSOLVABLE as stored, null if the puzzle is not in the cache.
+     */
+    SolveResult lookup(final CanonicalForm form, final SudokuGame game) {
+        Stripe stripe = stripe(form.key());
+        byte[] solution;
+        synchronized (stripe) {
+            solution = stripe.get(form.key());
+        }
+
+        if (solution == UNSOLVABLE) {
+            hits.increment();
+            return SolveResult.UNSOLVABLE;
+        }
+        if (solution != null && form.restore(solution, game)) {
+            hits.increment();
+            return SolveResult.SOLVED;
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Remember how the puzzle of form ended, game holding its solution if solved.
+     * Solves that gave up are not remembered.
+     */
+    void store(final CanonicalForm form, final SolveResult result, final SudokuGame game) {
+        byte[] solution;
+        if (result == SolveResult.SOLVED)
+            solution = form.canonical(game);
+        else if (result == SolveResult.UNSOLVABLE)
+            solution = UNSOLVABLE;
+        else
+            return;
+
+        Stripe stripe = stripe(form.key());
+        boolean evicted;
+        synchronized (stripe) {
+            stripe.put(form.key(), solution);
+            evicted = stripe.evicted();
+        }
+        if (evicted)
+            evictions.increment();
+    }
+
+    private Stripe stripe(final CanonicalForm.Key key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    /**
+     * @return puzzles stored now.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private static final class Stripe extends LinkedHashMap<CanonicalForm.Key, byte[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+        private boolean evicted;
+
+        Stripe(final int capacity, final boolean access_order) {
+            super(16, 0.75f, access_order);
+            this.capacity = capacity;
+        }
+
+        /**
+         * @return true if the last put dropped a puzzle.
+         */
+        boolean evicted() {
+            boolean result = evicted;
+            evicted = false;
+            return result;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CanonicalForm.Key, byte[]> eldest) {
+            evicted = size() > capacity;
+            return evicted;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.samstdio.sudoku;
+
+/**
+ * Budget and cancellation of one solver, asked by its search at every node.
+ *
+ * The node budget is compared every time. The clock, cancel() and thread interruption are
+ * looked at every CHECK_INTERVAL nodes, so a node costs a compare and a mask test.
+ */
+final class SolveControl {
+    private static final long CHECK_INTERVAL = 1 << 10;
+
+    private volatile boolean cancelled;
+    private long max_nodes = Long.MAX_VALUE;
+    private boolean timed;
+    private long deadline;
+    private SolveResult stopped;
+
+    void start(final SolveBudget budget) {
+        max_nodes = budget.getMaxNodes();
+        timed = budget.getTimeoutNanos() != Long.MAX_VALUE;
+        deadline = System.nanoTime() + budget.getTimeoutNanos();
+        stopped = cancelled ? SolveResult.CANCELLED : null;
+    }
+
+    /**
+     * @param nodes nodes visited so far in this solve.
+     * @return true if the search should give up, see stopped() for why.
+     */
+    boolean stop(final long nodes) {
+        if (stopped != null)
+            return true;
+
+        if (nodes > max_nodes) {
+            stopped = SolveResult.BUDGET_EXCEEDED;
+        } else if ((nodes & (CHECK_INTERVAL - 1)) == 0) {
+            if (cancelled || Thread.currentThread().isInterrupted())
+                stopped = SolveResult.CANCELLED;
+            else if (timed && System.nanoTime() - deadline > 0)
+                stopped = SolveResult.BUDGET_EXCEEDED;
+        }
+
+        return stopped != null;
+    }
+
+    /**
+     * @return why the search gave up, null if it did not.
+     */
+    SolveResult stopped() {
+        return stopped;
+    }
+
+    /**
+     * Stop the running solve and every later one. Safe from any thread.
+     */
+    void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Forget cancel(), for a solver taken up again with a new board.
+     */
+    void reset() {
+        cancelled = false;
+    }
+}
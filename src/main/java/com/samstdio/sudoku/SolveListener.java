@@ -0,0 +1,41 @@
+package com.samstdio.sudoku;
+
+/**
+ * Receives solver progress, for tracing and debugging.
+ * Every method does nothing by default; solvers use NONE unless a listener is set,
+ * so tracing costs nothing when nobody listens.
+ */
+public interface SolveListener {
+    SolveListener NONE = new SolveListener() {
+    };
+
+    /**
+     * The solver starts working on a blank.
+     */
+    default void onTry(int row, int col) {
+    }
+
+    default void onAssign(int row, int col, int num) {
+    }
+
+    /**
+     * A search takes back an earlier assignment.
+     */
+    default void onUnassign(int row, int col) {
+    }
+
+    /**
+     * technique removed candidates without placing a number yet.
+     */
+    default void onEliminate(Technique technique) {
+    }
+
+    /**
+     * The solver cannot make progress from row, col.
+     */
+    default void onStuck(int row, int col) {
+    }
+
+    default void onFinish(SudokuGame game, boolean solved) {
+    }
+}
@@ -0,0 +1,218 @@
+package com.samstdio.sudoku;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+
+/**
+ * Flow processor turning puzzle lines into solved lines, for reactive sources.
+ *
+ * Each line goes through four FlowStages, each with its own workers and bounded buffers :
+ *   parse       the line format of PuzzleFormat into a board
+ *   propagate   deductions of the human solver, without guessing
+ *   search      the solver made by factory, for what deduction left
+ *   serialize   the board back into a line
+ * The propagate and search workers each keep a game and solver in a SolverPool, reset to
+ * every board, so a line allocates no game or solver on its way through.
+ * Only as many lines are requested from upstream as the stages have room for, so memory
+ * stays flat however fast the source is and however slow the subscriber. Lines come out in
+ * the order they finish, tagged with their input index.
+ * Nothing is requested until the pipeline has a subscriber.
+ */
+public final class SolvePipeline implements Flow.Processor<String, SolvePipeline.Line>, AutoCloseable {
+    private final SolveBudget budget;
+    // a game and solver per worker of the propagate and search stages
+    private final SolverPool deductions = new SolverPool(
+            game -> new SudokuSolverHuman(game, DeductionPipeline.standard()));
+    private final SolverPool searches;
+    private final FlowStage<Job, Job> parse;
+    private final FlowStage<Job, Job> propagate;
+    private final FlowStage<Job, Job> search;
+    private final FlowStage<Job, Line> serialize;
+    private long index;
+
+    /**
+     * @param parallelism workers of the propagate and search stages; parse and serialize have one.
+     * @param buffer items each stage takes in and each hands on, at most.
+     * @param budget limits of the propagate and of the search solve of each puzzle.
+     * @param factory creates the solver of the search stage, once per worker and board size.
+     */
+    public SolvePipeline(int parallelism, int buffer, SolveBudget budget,
+                         Function<SudokuGame, SudokuSolver> factory) {
+        this.budget = budget;
+        this.searches = new SolverPool(factory);
+        this.parse = new FlowStage<>("sudoku-parse", SolvePipeline::parse, 1, buffer, false);
+        this.propagate = new FlowStage<>("sudoku-propagate", this::propagate, parallelism, buffer, true);
+        this.search = new FlowStage<>("sudoku-search", this::search, parallelism, buffer, true);
+        this.serialize = new FlowStage<>("sudoku-serialize", SolvePipeline::serialize, 1, buffer, true);
+
+        parse.subscribe(propagate);
+        propagate.subscribe(search);
+        search.subscribe(serialize);
+    }
+
+    private static Job parse(final Job job) {
+        try {
+            job.board = PuzzleFormat.parse(job.text);
+        } catch (IllegalArgumentException e) {
+            job.text = e.getMessage();
+        }
+
+        return job;
+    }
+
+    private Job propagate(final Job job) {
+        SolverPool.Entry entry = acquire(deductions, job);
+        // a board repeating a number is left for search to reject
+        if (entry != null && entry.getGame().isConsistent()) {
+            if (entry.getSolver().solve(budget) == SolveResult.SOLVED)
+                job.result = SolveResult.SOLVED;
+            copy(entry.getGame(), job.board);
+        }
+
+        return job;
+    }
+
+    private Job search(final Job job) {
+        if (job.result == null) {
+            SolverPool.Entry entry = acquire(searches, job);
+            if (entry != null) {
+                job.result = entry.getSolver().solve(budget);
+                copy(entry.getGame(), job.board);
+            }
+        }
+
+        return job;
+    }
+
+    private static Line serialize(final Job job) {
+        if (job.board == null)
+            return new Line(job.index, null, job.text);
+
+        return new Line(job.index, job.result, PuzzleFormat.format(job.board));
+    }
+
+    /**
+     * @return this worker's game on the board of job and its solver, null if job is not a
+     * puzzle or the board is not one a game takes.
+     */
+    private static SolverPool.Entry acquire(final SolverPool pool, final Job job) {
+        if (job.board == null)
+            return null;
+
+        try {
+            return pool.acquire(job.board);
+        } catch (IllegalArgumentException e) {
+            job.board = null;
+            job.text = e.getMessage();
+            return null;
+        }
+    }
+
+    private static void copy(final SudokuGame game, final int[][] board) {
+        for (int row = 0; row < board.length; row++)
+            for (int col = 0; col < board.length; col++)
+                board[row][col] = game.getNumber(row, col);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        parse.onSubscribe(subscription);
+    }
+
+    @Override
+    public void onNext(String item) {
+        parse.onNext(new Job(index++, item));
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        parse.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        parse.onComplete();
+    }
+
+    /**
+     * Subscribe, and start requesting lines from upstream.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super Line> subscriber) {
+        serialize.subscribe(subscriber);
+        parse.open();
+    }
+
+    /**
+     * Cancel upstream and the running solves, failing the subscriber with a CancellationException.
+     */
+    @Override
+    public void close() {
+        CancellationException reason = new CancellationException("solve pipeline closed");
+
+        parse.cancel(reason);
+        propagate.cancel(reason);
+        search.cancel(reason);
+        serialize.cancel(reason);
+    }
+
+    /**
+     * A puzzle on its way through the stages, handed from one worker to the next.
+     * Only the board travels; each worker solves it on the game of its own pool entry.
+     */
+    private static final class Job {
+        private final long index;
+        // the line, or why it could not be solved once board is null
+        private String text;
+        private int[][] board;
+        private SolveResult result;
+
+        Job(final long index, final String text) {
+            this.index = index;
+            this.text = text;
+        }
+    }
+
+    public static final class Line {
+        private final long index;
+        private final SolveResult result;
+        private final String text;
+
+        Line(long index, SolveResult result, String text) {
+            this.index = index;
+            this.result = result;
+            this.text = text;
+        }
+
+        /**
+         * @return position of the puzzle in the input.
+         */
+        public long getIndex() {
+            return index;
+        }
+
+        /**
+         * @return how the solve ended, null if the line is not a puzzle.
+         */
+        public SolveResult getResult() {
+            return result;
+        }
+
+        public boolean isSolved() {
+            return result == SolveResult.SOLVED;
+        }
+
+        /**
+         * @return the board as far as it got, in the line format, or why the line is not a puzzle.
+         */
+        public String getText() {
+            return text;
+        }
+
+        @Override
+        public String toString() {
+            return index + " " + (result == null ? "ERR" : result.name()) + " " + text;
+        }
+    }
+}
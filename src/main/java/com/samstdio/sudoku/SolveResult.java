@@ -0,0 +1,14 @@
+package com.samstdio.sudoku;
+
+/**
+ * How a solve ended.
+ */
+public enum SolveResult {
+    SOLVED,
+    // the board has no solution, or the solver's techniques cannot find it
+    UNSOLVABLE,
+    // the node or time budget ran out first
+    BUDGET_EXCEEDED,
+    // cancel() was called or the solving thread was interrupted
+    CANCELLED
+}
@@ -0,0 +1,493 @@
+package com.samstdio.sudoku;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Solves puzzles sent over TCP, so a client pays for JVM startup and warmup once.
+ *
+ * One thread runs a selector for every connection and only parses lines and writes replies;
+ * puzzles are solved on a fixed pool of workers fed by a bounded queue. Requests are lines:
+ * <pre>
+ *   puzzle          one puzzle in the line format of PuzzleFormat
+ *   BATCH n         the next n lines are puzzles, solved together by one worker
+ *   STATS           latency from handing a puzzle to the workers to its reply being ready
+ * </pre>
+ * Every puzzle gets one reply line, in request order per connection: SOLVED and the filled
+ * board, another SolveResult name, or ERR and why. STATS replies with LatencyHistogram.
+ *
+ * When the worker queue is full, or a connection has too many replies outstanding, the
+ * server stops reading from that connection until workers catch up, so a fast client is
+ * slowed down by TCP flow control instead of piling up puzzles in memory.
+ */
+public class SolveServer implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_OUTSTANDING = 1024;
+    private static final int MAX_BATCH = 1 << 16;
+    private static final byte[] NEW_LINE = {'\n'};
+    // stands for a line that did not fit the buffer, compared by identity
+    private static final String TOO_LONG = new String("TOO_LONG");
+
+    private final ThreadPoolExecutor pool;
+    private final SolveBudget budget;
+    // each worker keeps its game and solver from puzzle to puzzle
+    private final SolverPool solvers;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final Thread thread;
+    // connections with replies finished by workers, for the selector thread to write
+    private final Queue<Connection> ready = new ConcurrentLinkedQueue<>();
+    // connections that stopped reading, to resume when workers catch up
+    private final List<Connection> paused = new ArrayList<>();
+    private volatile boolean running = true;
+
+    /**
+     * @param port port to listen on, 0 for any free one. Only the loopback address is bound.
+     * @param workers threads solving puzzles.
+     * @param queue_size tasks waiting for a worker at most, a batch counts once.
+     * @param budget limits of each puzzle's solve.
+     * @param factory creates the solver of a game, once per worker and board size.
+     */
+    public SolveServer(int port, int workers, int queue_size, SolveBudget budget,
+                       Function<SudokuGame, SudokuSolver> factory) throws IOException {
+        if (workers < 1 || queue_size < 1)
+            throw new IllegalArgumentException("workers and queue_size should be positive");
+
+        this.budget = budget;
+        this.solvers = new SolverPool(factory);
+        this.pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queue_size), runnable -> {
+                    Thread worker = new Thread(runnable, "solve-server-worker");
+                    worker.setDaemon(true);
+                    return worker;
+                });
+
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+
+        this.thread = new Thread(this::run, "solve-server");
+        thread.start();
+    }
+
+    /**
+     * @return port the server listens on.
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+
+                Connection done;
+                while ((done = ready.poll()) != null)
+                    done.flush();
+
+                resume();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    if (!key.isValid())
+                        continue;
+                    if (key.isAcceptable())
+                        accept();
+                    else
+                        ((Connection) key.attachment()).handle(key);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                try {
+                    key.channel().close();
+                } catch (IOException e) {
+                    // closing anyway
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // closing anyway
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null)
+            return;
+
+        channel.configureBlocking(false);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+    }
+
+    private void resume() {
+        for (int i = 0; i < paused.size(); ) {
+            Connection connection = paused.get(i);
+            if (connection.unblock()) {
+                paused.set(i, paused.get(paused.size() - 1));
+                paused.remove(paused.size() - 1);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Solve one puzzle line on the calling worker.
+     */
+    private String solve(final String line) {
+        SolverPool.Entry entry;
+        try {
+            entry = solvers.acquire(PuzzleFormat.parse(line));
+        } catch (IllegalArgumentException e) {
+            return "ERR " + e.getMessage();
+        }
+
+        SolveResult result = entry.getSolver().solve(budget);
+        if (result != SolveResult.SOLVED)
+            return result.name();
+
+        return SolveResult.SOLVED.name() + ' ' + PuzzleFormat.format(entry.getGame());
+    }
+
+    /**
+     * Stop accepting, drop open connections and cancel the running solves.
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        pool.shutdownNow();
+
+        try {
+            thread.join();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A reply in the order of its request, text set by a worker when ready.
+     */
+    private static final class Reply {
+        private volatile String text;
+
+        Reply(final String text) {
+            this.text = text;
+        }
+    }
+
+    /**
+     * One client, touched only by the selector thread but for the replies workers fill in.
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+        private final ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+        // lines read but not handed to a worker yet
+        private final Queue<String> lines = new ArrayDeque<>();
+        private final Queue<Reply> replies = new ArrayDeque<>();
+        private SelectionKey key;
+        private boolean closing;
+        private boolean waiting;
+
+        Connection(final SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void handle(final SelectionKey key) {
+            try {
+                if (key.isReadable())
+                    read();
+                if (key.isValid() && key.isWritable())
+                    flush();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        private void read() throws IOException {
+            int count = channel.read(in);
+
+            in.flip();
+            int start = in.position();
+            for (int i = start; i < in.limit(); i++) {
+                if (in.get(i) == '\n') {
+                    line(start, i);
+                    start = i + 1;
+                }
+            }
+            in.position(start);
+
+            if (count < 0) {
+                // the last line may have no new line
+                if (in.hasRemaining())
+                    line(start, in.limit());
+                in.clear();
+                closing = true;
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            } else {
+                in.compact();
+                if (!in.hasRemaining()) {
+                    lines.add(TOO_LONG);
+                    in.clear();
+                    closing = true;
+                    key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                }
+            }
+
+            if (!drain())
+                block();
+            flush();
+        }
+
+        private void line(final int start, final int end) {
+            lines.add(new String(in.array(), start, end - start, StandardCharsets.US_ASCII).trim());
+        }
+
+        /**
+         * Hand the lines read to workers, until the pool or this connection is full.
+         * @return false if a line has to wait for the workers.
+         */
+        boolean drain() {
+            while (!lines.isEmpty()) {
+                if (replies.size() >= MAX_OUTSTANDING)
+                    return false;
+
+                String line = lines.peek();
+                if (line.isEmpty()) {
+                    lines.poll();
+                    continue;
+                }
+
+                if (line == TOO_LONG) {
+                    lines.poll();
+                    reply(new Reply("ERR line longer than " + BUFFER_SIZE + " bytes"));
+                    continue;
+                }
+
+                if (line.equals("STATS")) {
+                    lines.poll();
+                    reply(new Reply("STATS " + latencies));
+                    continue;
+                }
+
+                if (!line.startsWith("BATCH")) {
+                    if (!submit(1, false))
+                        return false;
+                    continue;
+                }
+
+                int batch;
+                try {
+                    batch = Integer.parseInt(line.substring(5).trim());
+                } catch (NumberFormatException e) {
+                    batch = -1;
+                }
+                if (batch < 1 || batch > MAX_BATCH) {
+                    lines.poll();
+                    reply(new Reply("ERR batch should have 1 to " + MAX_BATCH + " puzzles"));
+                    continue;
+                }
+
+                if (lines.size() <= batch) {
+                    // wait for the rest of the batch, unless the client is gone
+                    if (closing) {
+                        lines.clear();
+                        reply(new Reply("ERR batch cut short"));
+                    }
+                    return true;
+                }
+
+                if (!submit(batch, true))
+                    return false;
+            }
+
+            return true;
+        }
+
+        private void block() {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            if (!waiting) {
+                waiting = true;
+                paused.add(this);
+            }
+        }
+
+        /**
+         * Take the lines left after block(), reading on once they are all taken.
+         * @return true if the connection is not blocked any more.
+         */
+        boolean unblock() {
+            if (!key.isValid())
+                return true;
+            if (!drain())
+                return false;
+
+            waiting = false;
+            if (!closing)
+                key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+            flush();
+            return true;
+        }
+
+        /**
+         * @return false if the pool is full and nothing was taken.
+         */
+        private boolean submit(final int batch, final boolean framed) {
+            String[] puzzles = new String[batch];
+            Reply[] slots = new Reply[batch];
+            Iterator<String> pending = lines.iterator();
+            if (framed)
+                pending.next();
+            for (int i = 0; i < batch; i++) {
+                puzzles[i] = pending.next();
+                slots[i] = new Reply(null);
+            }
+
+            long received = System.nanoTime();
+            try {
+                pool.execute(() -> {
+                    for (int i = 0; i < batch; i++) {
+                        String text;
+                        try {
+                            text = solve(puzzles[i]);
+                        } catch (RuntimeException e) {
+                            text = "ERR " + e;
+                        }
+                        slots[i].text = text;
+                        latencies.record(System.nanoTime() - received);
+                    }
+                    ready.add(this);
+                    selector.wakeup();
+                });
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+
+            for (int i = framed ? batch + 1 : batch; i > 0; i--)
+                lines.poll();
+            for (Reply slot : slots)
+                reply(slot);
+
+            return true;
+        }
+
+        private void reply(final Reply reply) {
+            replies.add(reply);
+        }
+
+        /**
+         * Write the replies that are ready, in order, as far as the socket takes them.
+         */
+        void flush() {
+            if (!key.isValid())
+                return;
+
+            try {
+                while (true) {
+                    Reply head = replies.peek();
+                    while (head != null && head.text != null) {
+                        byte[] text = head.text.getBytes(StandardCharsets.US_ASCII);
+                        if (out.remaining() < text.length + 1)
+                            break;
+
+                        out.put(text).put(NEW_LINE);
+                        replies.poll();
+                        head = replies.peek();
+                    }
+
+                    out.flip();
+                    channel.write(out);
+                    boolean drained = !out.hasRemaining();
+                    out.compact();
+
+                    if (!drained) {
+                        key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                    if (head == null || head.text == null)
+                        break;
+                }
+
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+                if (closing && replies.isEmpty() && lines.isEmpty())
+                    close();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        private void close() {
+            key.cancel();
+            paused.remove(this);
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // nothing left to tell the client
+            }
+        }
+    }
+
+    /**
+     * Serve until the process is stopped.
+     * usage : SolveServer port [workers] [queue_size]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("usage : SolveServer port [workers] [queue_size]");
+            return;
+        }
+
+        int port = Integer.parseInt(args[0]);
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int queue_size = args.length > 2 ? Integer.parseInt(args[2]) : workers * 64;
+
+        SolveServer server = new SolveServer(port, workers, queue_size, SolveBudget.UNLIMITED,
+                SudokuSolverDancingLinks::new);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            System.out.println(server.getLatencies());
+        }));
+
+        System.out.println("listening on port " + server.getPort());
+        server.thread.join();
+    }
+}
@@ -0,0 +1,133 @@
+package com.samstdio.sudoku;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counters of one solve, or of many when taken from SolverMetrics.
+ *
+ * Solvers count into their own instance with plain field increments and hand out copies,
+ * so recording costs no more than the old unused counter fields did.
+ */
+public final class SolveStats {
+    private static final Technique[] TECHNIQUES = Technique.values();
+
+    long solves;
+    long solved;
+    // search nodes, or blanks visited by the human solver
+    long nodes;
+    long assignments;
+    long rejected;
+    long backtracks;
+    long nanos;
+    final long[] techniques = new long[TECHNIQUES.length];
+
+    SolveStats() {
+    }
+
+    SolveStats(final SolveStats other) {
+        this.solves = other.solves;
+        this.solved = other.solved;
+        this.nodes = other.nodes;
+        this.assignments = other.assignments;
+        this.rejected = other.rejected;
+        this.backtracks = other.backtracks;
+        this.nanos = other.nanos;
+        System.arraycopy(other.techniques, 0, techniques, 0, techniques.length);
+    }
+
+    void clear() {
+        solves = solved = nodes = assignments = rejected = backtracks = nanos = 0;
+        Arrays.fill(techniques, 0);
+    }
+
+    /**
+     * Start counting a new solve.
+     */
+    void start() {
+        clear();
+        solves = 1;
+        nanos = System.nanoTime();
+    }
+
+    void finish(final boolean solved) {
+        this.solved = solved ? 1 : 0;
+        this.nanos = System.nanoTime() - nanos;
+    }
+
+    void technique(final Technique technique) {
+        techniques[technique.ordinal()]++;
+    }
+
+    public long getSolves() {
+        return solves;
+    }
+
+    /**
+     * @return solves that filled the board.
+     */
+    public long getSolved() {
+        return solved;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return numbers placed, including those taken back later.
+     */
+    public long getAssignments() {
+        return assignments;
+    }
+
+    /**
+     * @return numbers the game refused.
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * @return assignments taken back.
+     */
+    public long getBacktracks() {
+        return backtracks;
+    }
+
+    /**
+     * @return times technique made progress.
+     */
+    public long getTechniqueCount(final Technique technique) {
+        return techniques[technique.ordinal()];
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @return every counter by name, techniques as technique.NAME, in a fixed order.
+     */
+    public Map<String, Long> toMap() {
+        Map<String, Long> map = new LinkedHashMap<>();
+
+        map.put("solves", solves);
+        map.put("solved", solved);
+        map.put("nodes", nodes);
+        map.put("assignments", assignments);
+        map.put("rejected", rejected);
+        map.put("backtracks", backtracks);
+        map.put("nanos", nanos);
+        for (Technique technique : TECHNIQUES)
+            map.put("technique." + technique.name(), techniques[technique.ordinal()]);
+
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
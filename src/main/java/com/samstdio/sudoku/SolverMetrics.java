@@ -0,0 +1,71 @@
+package com.samstdio.sudoku;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters summed over many solves, safe to share between threads.
+ *
+ * Solvers given a SolverMetrics add their SolveStats once at the end of every solve, so the
+ * search itself never touches shared counters.
+ */
+public final class SolverMetrics {
+    private final LongAdder solves = new LongAdder();
+    private final LongAdder solved = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder assignments = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder backtracks = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder[] techniques = new LongAdder[Technique.values().length];
+
+    public SolverMetrics() {
+        for (int i = 0; i < techniques.length; i++)
+            techniques[i] = new LongAdder();
+    }
+
+    public void record(final SolveStats stats) {
+        solves.add(stats.solves);
+        solved.add(stats.solved);
+        nodes.add(stats.nodes);
+        assignments.add(stats.assignments);
+        rejected.add(stats.rejected);
+        backtracks.add(stats.backtracks);
+        nanos.add(stats.nanos);
+
+        for (int i = 0; i < techniques.length; i++) {
+            if (stats.techniques[i] != 0)
+                techniques[i].add(stats.techniques[i]);
+        }
+    }
+
+    /**
+     * @return the totals so far. Solves recorded meanwhile may be partly included.
+     */
+    public SolveStats snapshot() {
+        SolveStats stats = new SolveStats();
+
+        stats.solves = solves.sum();
+        stats.solved = solved.sum();
+        stats.nodes = nodes.sum();
+        stats.assignments = assignments.sum();
+        stats.rejected = rejected.sum();
+        stats.backtracks = backtracks.sum();
+        stats.nanos = nanos.sum();
+        for (int i = 0; i < techniques.length; i++)
+            stats.techniques[i] = techniques[i].sum();
+
+        return stats;
+    }
+
+    public void reset() {
+        solves.reset();
+        solved.reset();
+        nodes.reset();
+        assignments.reset();
+        rejected.reset();
+        backtracks.reset();
+        nanos.reset();
+        for (LongAdder technique : techniques)
+            technique.reset();
+    }
+}
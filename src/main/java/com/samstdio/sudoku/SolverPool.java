@@ -0,0 +1,85 @@
+package com.samstdio.sudoku;
+
+import java.util.function.Function;
+
+/**
+ * A game and its solver per thread and board size, reset to each new board instead of
+ * built again.
+ *
+ * The first board of a size on a thread builds them with factory; every later one only
+ * copies the board in and resets both, so a worker solving puzzle after puzzle allocates
+ * no game, solver, queue or matrix. An Entry belongs to the thread that acquired it and is
+ * only good until that thread's next acquire of the same size.
+ */
+public final class SolverPool {
+    // entries by box width, enough for every size a game supports
+    private static final int MAX_BOX = 8;
+
+    private final int nums;
+    private final int blank;
+    private final Function<SudokuGame, SudokuSolver> factory;
+    private final ThreadLocal<Entry[]> entries = ThreadLocal.withInitial(() -> new Entry[MAX_BOX]);
+
+    /**
+     * Numbers 1 .. size and 0 for a blank, as in the line format.
+     */
+    public SolverPool(Function<SudokuGame, SudokuSolver> factory) {
+        this(0, 0, factory);
+    }
+
+    /**
+     * @param nums largest number, as for SudokuGame; 0 for the board size.
+     * @param blank number marking a blank, as for SudokuGame.
+     * @param factory creates the solver of each game.
+     */
+    public SolverPool(int nums, int blank, Function<SudokuGame, SudokuSolver> factory) {
+        this.nums = nums;
+        this.blank = blank;
+        this.factory = factory;
+    }
+
+    /**
+     * @param board size x size numbers, copied into this thread's game of that size.
+     * @return this thread's game on board and its solver, ready to solve.
+     * @throws IllegalArgumentException if the board is not square, or as the game or factory would.
+     */
+    public Entry acquire(int[][] board) {
+        int size = board.length;
+        int box = (int) Math.round(Math.sqrt(size));
+        if (box * box != size || box >= MAX_BOX)
+            throw new IllegalArgumentException("board size should be a square number below "
+                    + MAX_BOX * MAX_BOX + " : " + size);
+
+        Entry[] slots = entries.get();
+        Entry entry = slots[box];
+
+        if (entry == null) {
+            SudokuGame game = new SudokuGame(board, null, nums > 0 ? nums : size, blank);
+            entry = new Entry(game, factory.apply(game));
+            slots[box] = entry;
+        } else {
+            entry.game.reset(board);
+            entry.solver.reset();
+        }
+
+        return entry;
+    }
+
+    public static final class Entry {
+        private final SudokuGame game;
+        private final SudokuSolver solver;
+
+        Entry(SudokuGame game, SudokuSolver solver) {
+            this.game = game;
+            this.solver = solver;
+        }
+
+        public SudokuGame getGame() {
+            return game;
+        }
+
+        public SudokuSolver getSolver() {
+            return solver;
+        }
+    }
+}
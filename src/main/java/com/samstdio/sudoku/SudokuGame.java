@@ -1,48 +1,196 @@
 package com.samstdio.sudoku;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class SudokuGame {
     // restriction : board should be 2-D and diagonal
 
-    private final int[][] board;
-    private final int[][] solution;
+    // cells row by row, board[row][col] is board[row * size + col].
+    private final byte[] board;
+    private byte[] solution;
+    private final int size;
     private final int BLANK;
-    private final Set<Integer> numbers;
 
+    // bit (1L << num) is set when num is already placed in the row/column/section.
+    private final long[] row_masks;
+    private final long[] col_masks;
+    private final long[] sec_masks;
+    private final long numbers_mask;
+    // sections are box x box, size is box * box.
+    private final int box;
+    // cells (row * size + col) sharing a row, column or section with each cell.
+    // Only depends on the size, so games of a size share one table.
+    private static final Map<Integer, int[][]> PEERS = new ConcurrentHashMap<>();
+    private final int[][] peers;
+    // false when the given board already repeats a number in a row, column or section.
+    private boolean consistent = true;
+    // blank cells in no particular order; blank_index[cell] is the slot of cell, -1 if filled.
+    private final int[] blanks;
+    private final int[] blank_index;
+    private int blank_count;
+
+    /**
+     * The board is copied, the game does not write into the given array.
+     * @param board size x size numbers, blank where empty. size should be a square (4, 9, 16, 25 ...).
+     * @param solution optional, used by grade and printSolution.
+     * @param nums largest number, at most 63.
+     * @param blank number marking an empty cell.
+     */
     public SudokuGame(int[][] board, int[][] solution, int nums, int blank) {
+        this(pack(board), solution == null ? null : pack(solution), nums, blank);
+    }
+
+    /**
+     * @param board size * size numbers row by row, blank where empty. Not copied.
+     * @param solution optional, used by grade and printSolution.
+     * @param nums largest number, at most 63.
+     * @param blank number marking an empty cell.
+     */
+    public SudokuGame(byte[] board, byte[] solution, int nums, int blank) {
+        this.size = (int) Math.round(Math.sqrt(board.length));
+        this.box = (int) Math.round(Math.sqrt(size));
+
+        if (size * size != board.length)
+            throw new IllegalArgumentException("board should be square : " + board.length + " cells");
+        if (box * box != size)
+            throw new IllegalArgumentException("board size should be a square number : " + size);
+        // candidate masks are longs, one bit per number
+        if (nums >= Long.SIZE || blank < Byte.MIN_VALUE || blank >= Long.SIZE)
+            throw new IllegalArgumentException("numbers should be below " + Long.SIZE);
+
         this.board = board;
         this.solution = solution;
         this.BLANK = blank;
 
-        int sum = 0;
-        Set<Integer> numbers = new HashSet<>();
+        // numbers are blank + 1 .. nums
+        long numbers_mask = 0;
+        for (int num = Math.max(blank + 1, 0); num <= nums; num++)
+            numbers_mask |= 1L << num;
+        this.numbers_mask = numbers_mask;
+
+        this.row_masks = new long[size];
+        this.col_masks = new long[size];
+        this.sec_masks = new long[size];
+        this.blanks = new int[size * size];
+        this.blank_index = new int[size * size];
+
+        recalculate();
+
+        this.peers = PEERS.computeIfAbsent(size, SudokuGame::buildPeers);
+    }
+
+    /**
+     * A game of its own with the board of other as it is now. The solution is shared.
+     */
+    SudokuGame(SudokuGame other) {
+        this.board = other.board.clone();
+        this.solution = other.solution;
+        this.size = other.size;
+        this.BLANK = other.BLANK;
+        this.row_masks = other.row_masks.clone();
+        this.col_masks = other.col_masks.clone();
+        this.sec_masks = other.sec_masks.clone();
+        this.numbers_mask = other.numbers_mask;
+        this.box = other.box;
+        this.peers = other.peers;
+        this.consistent = other.consistent;
+        this.blanks = other.blanks.clone();
+        this.blank_index = other.blank_index.clone();
+        this.blank_count = other.blank_count;
+    }
+
+    /**
+     * Take up a new board of the same size, keeping every array of the game.
+     * The solution is dropped. Solvers of the game need their reset() afterwards.
+     * @param board size x size numbers, blank where empty. Copied.
+     */
+    public void reset(int[][] board) {
+        if (board.length != size)
+            throw new IllegalArgumentException("expected " + size + " rows but got " + board.length);
+
+        for (int row = 0; row < size; row++) {
+            if (board[row].length != size)
+                throw new IllegalArgumentException("board should be square : row " + row);
+
+            for (int col = 0; col < size; col++)
+                this.board[row * size + col] = (byte) board[row][col];
+        }
+
+        solution = null;
+        recalculate();
+    }
+
+    /**
+     * @param board size * size numbers row by row, blank where empty. Copied.
+     * @see #reset(int[][])
+     */
+    public void reset(byte[] board) {
+        if (board.length != size * size)
+            throw new IllegalArgumentException("expected " + size * size + " cells but got " + board.length);
+
+        System.arraycopy(board, 0, this.board, 0, board.length);
+        solution = null;
+        recalculate();
+    }
+
+    private static byte[] pack(final int[][] board) {
+        int size = board.length;
+        byte[] cells = new byte[size * size];
+
+        for (int row = 0; row < size; row++) {
+            if (board[row].length != size)
+                throw new IllegalArgumentException("board should be square : row " + row);
+
+            for (int col = 0; col < size; col++)
+                cells[row * size + col] = (byte) board[row][col];
+        }
+
+        return cells;
+    }
+
+    private static int[][] buildPeers(final int size) {
+        int box = (int) Math.round(Math.sqrt(size));
+        int[][] peers = new int[size * size][];
+        int[] buffer = new int[size * size];
+
+        for (int cell = 0; cell < size * size; cell++) {
+            int row = cell / size;
+            int col = cell % size;
+            int k = 0;
+
+            for (int other = 0; other < size * size; other++) {
+                int other_row = other / size;
+                int other_col = other % size;
 
-        for (int i = blank; i <= nums; i++) {
-            sum += i;
-            numbers.add(i);
+                if (other != cell && (other_row == row || other_col == col
+                        || (other_row / box == row / box && other_col / box == col / box)))
+                    buffer[k++] = other;
+            }
+
+            peers[cell] = Arrays.copyOf(buffer, k);
         }
 
-        numbers.remove(this.BLANK);
-        this.numbers = numbers;
+        return peers;
     }
 
     AssignResult assign(final int row, final int col, final int num) {
-        if (num == this.BLANK)
+        if (num == this.BLANK || num < 0 || num >= Long.SIZE || (numbers_mask & (1L << num)) == 0)
             return AssignResult.NOT_ASSIGNABLE;
 
-        if (row < 0 || row >= board.length || col < 0 || col >= board[0].length)
+        if (!inBoard(row, col))
             return AssignResult.OUT_OF_BOARDER;
 
-        if (board[row][col] != this.BLANK)
+        if (board[row * size + col] != this.BLANK)
             return AssignResult.ALREADY_ASSIGNED;
         // merge with first if statement.
         if (!assignable(row, col, num)) {
             return AssignResult.NOT_ASSIGNABLE;
         }
 
-        board[row][col] = num;
-        recalculate();
+        board[row * size + col] = (byte) num;
+        mark(row, col, num);
+        removeBlank(row * size + col);
 
         if (solved())
             return AssignResult.SOLVED;
@@ -50,82 +198,261 @@ public class SudokuGame {
         return AssignResult.OK;
     }
 
-    private boolean assignable(final int row, final int col, final int num) {
-        // TODO
-        int[] row_nums = getRow(row);
-        int[] col_nums = getColumn(col);
-        int[] sec_nums = getSection(row, col);
-
-        int row_index = indexOf(row_nums, num);
-        int col_index = indexOf(col_nums, num);
-        int sec_index = indexOf(sec_nums, num);
+    /**
+     * Undo an assignment, making row, col blank again.
+     * @param row
+     * @param col
+     * @return false if row, col is out of board or already blank.
+     */
+    boolean unassign(final int row, final int col) {
+        if (!inBoard(row, col))
+            return false;
 
-        if (row_index >= 0 || col_index >= 0 || sec_index >= 0)
+        int num = board[row * size + col];
+        if (num == this.BLANK)
             return false;
 
+        board[row * size + col] = (byte) this.BLANK;
+        unmark(row, col, num);
+        addBlank(row * size + col);
+
         return true;
     }
 
+    /**
+     * Numbers that can still be assigned to row, col, one bit (1L << num) per number.
+     * Walk it without allocating :
+     * for (long m = mask; m != 0; m &= m - 1) Long.numberOfTrailingZeros(m)
+     * @param row
+     * @param col
+     * @return 0 if row, col is not blank.
+     */
+    public long getCandidateMask(final int row, final int col) {
+        if (board[row * size + col] != this.BLANK)
+            return 0;
+
+        return numbers_mask & ~(row_masks[row] | col_masks[col] | sec_masks[sectionIndex(row, col)]);
+    }
+
+    /**
+     * @param cell row * size + col
+     * @return cells sharing a row, column or section with cell. Do not modify.
+     */
+    int[] getPeers(final int cell) {
+        return peers[cell];
+    }
+
+    /**
+     * @return false if the board has a number repeated in a row, column or section.
+     */
+    boolean isConsistent() {
+        return consistent;
+    }
+
+    private boolean inBoard(final int row, final int col) {
+        return row >= 0 && row < size && col >= 0 && col < size;
+    }
+
+    private boolean assignable(final int row, final int col, final int num) {
+        long bit = 1L << num;
+
+        return ((row_masks[row] | col_masks[col] | sec_masks[sectionIndex(row, col)]) & bit) == 0;
+    }
+
+    private void mark(final int row, final int col, final int num) {
+        long bit = 1L << num;
+
+        if (!assignable(row, col, num))
+            consistent = false;
+
+        row_masks[row] |= bit;
+        col_masks[col] |= bit;
+        sec_masks[sectionIndex(row, col)] |= bit;
+    }
+
+    private void unmark(final int row, final int col, final int num) {
+        long bit = ~(1L << num);
+
+        row_masks[row] &= bit;
+        col_masks[col] &= bit;
+        sec_masks[sectionIndex(row, col)] &= bit;
+    }
+
+    private void addBlank(final int cell) {
+        blank_index[cell] = blank_count;
+        blanks[blank_count++] = cell;
+    }
+
+    /**
+     * Fill the slot of cell with the last blank, so removal does not shift the others.
+     */
+    private void removeBlank(final int cell) {
+        int slot = blank_index[cell];
+        int last = blanks[--blank_count];
+
+        blanks[slot] = last;
+        blank_index[last] = slot;
+        blank_index[cell] = -1;
+    }
+
+    private int sectionIndex(final int row, final int col) {
+        return (row / box) * box + col / box;
+    }
+
     public int getNumber(final int row, final int col) {
-        return board[row][col];
+        return board[row * size + col];
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return width and height of a section.
+     */
+    public int getBox() {
+        return box;
+    }
+
+    boolean isBlank(final int row, final int col) {
+        return board[row * size + col] == this.BLANK;
+    }
+
+    /**
+     * @return a copy of the board as size x size numbers.
+     */
+    public int[][] getBoard() {
+        return unpack(board);
     }
 
-    private int indexOf(final int[] arr, final int num) {
-        for (int i = 0; i < arr.length; i++)
-            if (num == arr[i])
-                return i;
+    private int[][] unpack(final byte[] cells) {
+        int[][] arr = new int[size][size];
 
-        return -1;
+        for (int row = 0; row < size; row++)
+            for (int col = 0; col < size; col++)
+                arr[row][col] = cells[row * size + col];
+
+        return arr;
     }
 
     int[] getSection(int row, int col) {
-        // FIXME
-        int section_row_start = (row / 3) * 3;
-        int section_col_start = (col / 3) * 3;
+        int section_row_start = (row / box) * box;
+        int section_col_start = (col / box) * box;
 
-        int[] section = new int[board[0].length];
+        int[] section = new int[size];
         int k = 0;
 
-        for (int i = 0; i < 3; i++)
-            for (int j = 0; j < 3; j++)
-                section[k++] = board[i + section_row_start][j + section_col_start];
+        for (int i = 0; i < box; i++)
+            for (int j = 0; j < box; j++)
+                section[k++] = board[(i + section_row_start) * size + j + section_col_start];
 
         return section;
     }
 
     int[] getColumn(int col) {
-        int[] cols = new int[board[0].length];
+        int[] cols = new int[size];
 
-        for (int i = 0; i < board[0].length; i++)
-            cols[i] = board[i][col];
+        for (int i = 0; i < size; i++)
+            cols[i] = board[i * size + col];
 
         return cols;
     }
 
     int[] getRow(int row) {
-        return Arrays.copyOf(board[row], board[row].length);
+        int[] rows = new int[size];
+
+        for (int i = 0; i < size; i++)
+            rows[i] = board[row * size + i];
+
+        return rows;
     }
 
+    /**
+     * Rebuild the placed-number masks and the blank set from the board.
+     * assign and unassign keep them up to date, this is only needed when the board
+     * is written directly.
+     */
     void recalculate() {
-        // TODO
+        Arrays.fill(row_masks, 0);
+        Arrays.fill(col_masks, 0);
+        Arrays.fill(sec_masks, 0);
+        consistent = true;
+        blank_count = 0;
+
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int cell = row * size + col;
+                int num = board[cell];
+
+                blank_index[cell] = -1;
+                if (num == this.BLANK)
+                    addBlank(cell);
+                else if (num < 0 || num >= Long.SIZE || (numbers_mask & (1L << num)) == 0)
+                    consistent = false;
+                else
+                    mark(row, col, num);
+            }
+        }
     }
 
+    /**
+     * assign keeps every row, column and section free of repeats, so a board without blanks
+     * is solved unless the givens already repeated a number.
+     */
     boolean solved() {
-        // has no blank
-        for (int[] row : board) {
-            for (int num : row) {
-                if (this.BLANK == num)
-                    return false;
-            }
-        }
+        return blank_count == 0 && consistent;
+    }
 
-        // more conditions.
+    /**
+     * Grade the board against the solution the game was made with, or against the
+     * constraints alone without one.
+     */
+    public Verdict grade() {
+        if (!consistent)
+            return Verdict.INVALID;
+        if (blank_count != 0)
+            return Verdict.INCOMPLETE;
+        if (solution == null || Arrays.equals(board, solution))
+            return Verdict.CORRECT;
+
+        return Verdict.WRONG;
+    }
 
-        return true;
+    /**
+     * @return number of blank cells left.
+     */
+    public int getBlankCount() {
+        return blank_count;
+    }
+
+    /**
+     * Enumerate blanks without allocating :
+     * for (int i = 0; i < game.getBlankCount(); i++) game.getBlankCell(i)
+     * The order is unspecified and changes with assign and unassign.
+     * @param i 0 to getBlankCount() - 1
+     * @return the i-th blank cell, as row * size + col.
+     */
+    public int getBlankCell(final int i) {
+        return blanks[i];
     }
 
+    /**
+     * @return every number of the game, one bit (1L << num) per number.
+     */
+    public long getNumbersMask() {
+        return numbers_mask;
+    }
+
+    /**
+     * @return a new set of every number of the game. Boxes, prefer getNumbersMask.
+     */
     public Set<Integer> getPossibleNumbers() {
-        return new HashSet(numbers);
+        Set<Integer> numbers = new HashSet<>();
+
+        for (long mask = numbers_mask; mask != 0; mask &= mask - 1)
+            numbers.add(Long.numberOfTrailingZeros(mask));
+
+        return numbers;
     }
 
     enum AssignResult {
@@ -136,19 +463,19 @@ public class SudokuGame {
         SOLVED
     }
 
+    /**
+     * @return {row, col} of every blank in board order. Allocates, see getBlankCell.
+     */
     public int[][] getBlankPosition() {
-        List<int[]> blank_list = new ArrayList<int[]>();
+        int[][] ret_arr = new int[blank_count][];
+        int k = 0;
 
-        for (int row = 0; row < this.board.length; row++) {
-            for (int col = 0; col < this.board[0].length; col++) {
-                if (this.BLANK == this.board[row][col])
-                    blank_list.add(new int[]{row, col});
-            }
+        for (int cell = 0; k < blank_count; cell++) {
+            if (blank_index[cell] >= 0)
+                ret_arr[k++] = new int[]{cell / size, cell % size};
         }
 
-        int[][] ret_arr = new int[blank_list.size()][2];
-
-        return blank_list.toArray(ret_arr);
+        return ret_arr;
     }
 
     public void printBoard() {
@@ -156,13 +483,14 @@ public class SudokuGame {
     }
 
     public void printSolution() {
-        printArray(this.solution);
+        if (this.solution != null)
+            printArray(this.solution);
     }
 
-    private void printArray(final int[][] arr) {
-        for (int[] row : arr) {
-            for (int i : row) {
-                System.out.print(String.format("%d\t", i));
+    private void printArray(final byte[] arr) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                System.out.print(String.format("%d\t", arr[row * size + col]));
             }
             System.out.println();
         }
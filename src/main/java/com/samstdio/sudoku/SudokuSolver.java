@@ -1,5 +1,44 @@
 package com.samstdio.sudoku;
 
 public interface SudokuSolver {
-    void solve();
+    /**
+     * Fill every blank of the game, without a budget.
+     * @return false if the board has no solution.
+     */
+    default boolean solve() {
+        return solve(SolveBudget.UNLIMITED) == SolveResult.SOLVED;
+    }
+
+    /**
+     * Fill every blank of the game, giving up when budget runs out or the solve is cancelled.
+     * A solve that gives up may leave part of its work on the board.
+     */
+    SolveResult solve(SolveBudget budget);
+
+    /**
+     * Make the running solve, and every later one until reset, return CANCELLED. Safe from any thread.
+     * Interrupting the solving thread cancels the running solve too.
+     */
+    void cancel();
+
+    /**
+     * Take up the board the game got from SudokuGame.reset, keeping every internal array,
+     * so one solver serves many puzzles. Forgets cancel() too.
+     */
+    void reset();
+
+    /**
+     * Receive progress events from now on. SolveListener.NONE turns tracing off.
+     */
+    void setListener(SolveListener listener);
+
+    /**
+     * @return a copy of the counters of the last solve.
+     */
+    SolveStats getStats();
+
+    /**
+     * Add the counters of every solve from now on to metrics, null to stop.
+     */
+    void setMetrics(SolverMetrics metrics);
 }
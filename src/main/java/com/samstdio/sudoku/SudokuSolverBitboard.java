@@ -0,0 +1,415 @@
+package com.samstdio.sudoku;
+
+import java.util.Arrays;
+
+/**
+ * Bitboard solver for 9x9 boards, in the style of the JCZSolve and tdoku engines.
+ *
+ * Candidates are kept per number as three band words, 27 bits each: bit row_in_band * 9 + col
+ * is set while the number can still go there. A placed number keeps its bit and loses it
+ * everywhere it sees. A band word is pruned in one step by a table of the rows and boxes a
+ * number can still take in that band: the number needs one cell per row and per box, and
+ * only the 6 ways of doing so decide which 3-cell pieces of the band can keep it.
+ * Naked and hidden singles are found for all cells or units at once by counting candidates
+ * bit-sliced across the words. When propagation stalls the search tries the candidates of a
+ * cell with the fewest, copying the 30 words of state to undo.
+ */
+public class SudokuSolverBitboard implements SudokuSolver {
+    private static final int SIZE = 9;
+    private static final int BAND = 0x7FFFFFF;
+    private static final int ROW = 0x1FF;
+    // 27 band words and 3 words of unsolved cells
+    private static final int STATE = 30;
+    private static final int UNSOLVED = 27;
+    // word d * 3 + band of every number d, shifted left by band
+    private static final int BAND_WORDS = 0111111111;
+
+    // cells of a band seen by bit i of it, i itself excluded
+    private static final int[] BAND_PEERS = new int[27];
+    // bits of column c in any band
+    private static final int[] COLUMN = new int[SIZE];
+    // bits of box k in any band
+    private static final int[] BOX = new int[3];
+    // 3-cell pieces a number can keep given the pieces that have it, 0 if it has no place
+    private static final int[] PIECES = new int[1 << 9];
+    // piece bits to the cells they cover
+    private static final int[] EXPAND = new int[1 << 9];
+    // a row of a band to the bits of its 3 pieces with a candidate
+    private static final int[] ROW_PIECES = new int[1 << 9];
+
+    static {
+        for (int c = 0; c < SIZE; c++)
+            COLUMN[c] = (1 | 1 << 9 | 1 << 18) << c;
+        for (int k = 0; k < 3; k++)
+            BOX[k] = (7 | 7 << 9 | 7 << 18) << (3 * k);
+
+        for (int i = 0; i < 27; i++) {
+            int row = i / SIZE;
+            int col = i % SIZE;
+            BAND_PEERS[i] = (ROW << (9 * row) | COLUMN[col] | BOX[col / 3]) & ~(1 << i);
+        }
+
+        // piece j = row * 3 + box; each of the 6 permutations puts one piece per row and box
+        int[][] permutations = {{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}};
+        for (int pieces = 0; pieces < (1 << 9); pieces++) {
+            for (int[] permutation : permutations) {
+                int fit = 0;
+                for (int row = 0; row < 3; row++)
+                    fit |= 1 << (row * 3 + permutation[row]);
+                if ((pieces & fit) == fit)
+                    PIECES[pieces] |= fit;
+            }
+
+            for (int j = 0; j < 9; j++)
+                if ((pieces & (1 << j)) != 0)
+                    EXPAND[pieces] |= 7 << (9 * (j / 3) + 3 * (j % 3));
+        }
+
+        for (int row = 0; row < (1 << 9); row++)
+            for (int k = 0; k < 3; k++)
+                if ((row & (7 << (3 * k))) != 0)
+                    ROW_PIECES[row] |= 1 << k;
+    }
+
+    private final SudokuGame game;
+    private final int[] numbers;
+    private final int[] number_index;
+    // state of every search depth, depth 0 first
+    private final int[] stack = new int[(SIZE * SIZE + 1) * STATE];
+    private int depth;
+    // band words changed since propagate last looked at them, bit d * 3 + band
+    private int dirty;
+    private SolveListener listener = SolveListener.NONE;
+    private final SolveStats stats = new SolveStats();
+    private SolverMetrics metrics;
+    private final SolveControl control = new SolveControl();
+
+    public SudokuSolverBitboard(SudokuGame game) {
+        long numbers_mask = game.getNumbersMask();
+
+        if (game.getSize() != SIZE)
+            throw new IllegalArgumentException("expected a 9x9 board but got " + game.getSize());
+        if (Long.bitCount(numbers_mask) != SIZE)
+            throw new IllegalArgumentException("expected " + SIZE + " numbers but got " + Long.bitCount(numbers_mask));
+
+        this.game = game;
+        this.numbers = new int[SIZE];
+        for (int i = 0; i < SIZE; i++, numbers_mask &= numbers_mask - 1)
+            numbers[i] = Long.numberOfTrailingZeros(numbers_mask);
+
+        this.number_index = new int[numbers[SIZE - 1] + 1];
+        Arrays.fill(number_index, -1);
+        for (int i = 0; i < SIZE; i++)
+            number_index[numbers[i]] = i;
+    }
+
+    @Override
+    public SolveResult solve(SolveBudget budget) {
+        control.start(budget);
+        stats.start();
+        depth = 0;
+
+        boolean solved = loadGivens() && search();
+
+        if (solved) {
+            int base = depth * STATE;
+            for (int cell = 0; cell < SIZE * SIZE; cell++) {
+                int row = cell / SIZE;
+                int col = cell % SIZE;
+                if (!game.isBlank(row, col))
+                    continue;
+
+                int bit = 1 << (cell % 27);
+                for (int d = 0; d < SIZE; d++) {
+                    if ((stack[base + d * 3 + cell / 27] & bit) != 0) {
+                        game.assign(row, col, numbers[d]);
+                        listener.onAssign(row, col, numbers[d]);
+                        break;
+                    }
+                }
+            }
+        }
+
+        stats.finish(solved);
+        if (metrics != null)
+            metrics.record(stats);
+        listener.onFinish(game, solved);
+
+        if (solved)
+            return SolveResult.SOLVED;
+
+        return control.stopped() != null ? control.stopped() : SolveResult.UNSOLVABLE;
+    }
+
+    /**
+     * Start depth 0 with every candidate open and place the givens.
+     * @return false if the givens contradict each other.
+     */
+    private boolean loadGivens() {
+        for (int i = 0; i < 27; i++)
+            stack[i] = BAND;
+        for (int b = 0; b < 3; b++)
+            stack[UNSOLVED + b] = BAND;
+
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                if (game.isBlank(row, col))
+                    continue;
+
+                int num = game.getNumber(row, col);
+                if (num < 0 || num >= number_index.length || number_index[num] < 0)
+                    return false;
+
+                int cell = row * SIZE + col;
+                int d = number_index[num];
+                if ((stack[d * 3 + cell / 27] & (1 << (cell % 27))) == 0)
+                    return false;
+
+                place(0, d, cell / 27, cell % 27);
+            }
+        }
+
+        // givens are not assignments of the search
+        stats.assignments = 0;
+        dirty = (1 << 27) - 1;
+        return true;
+    }
+
+    /**
+     * Propagate the state at depth, then try the candidates of the cell with the fewest.
+     * On success the solved state is left at depth.
+     */
+    private boolean search() {
+        if (control.stop(++stats.nodes))
+            return false;
+
+        int base = depth * STATE;
+        if (!propagate(base))
+            return false;
+
+        int unsolved_0 = stack[base + UNSOLVED];
+        int unsolved_1 = stack[base + UNSOLVED + 1];
+        int unsolved_2 = stack[base + UNSOLVED + 2];
+        if ((unsolved_0 | unsolved_1 | unsolved_2) == 0)
+            return true;
+
+        // a cell with two candidates if any, else the first unsolved one
+        int band = -1;
+        int bit = 0;
+        for (int b = 0; b < 3 && band < 0; b++) {
+            int unsolved = stack[base + UNSOLVED + b];
+            if (unsolved == 0)
+                continue;
+
+            int once = 0;
+            int twice = 0;
+            int thrice = 0;
+            for (int d = 0; d < SIZE; d++) {
+                int word = stack[base + d * 3 + b] & unsolved;
+                thrice |= twice & word;
+                twice |= once & word;
+                once |= word;
+            }
+
+            int pairs = twice & ~thrice;
+            if (pairs != 0) {
+                band = b;
+                bit = Integer.lowestOneBit(pairs);
+            }
+        }
+        if (band < 0) {
+            band = unsolved_0 != 0 ? 0 : unsolved_1 != 0 ? 1 : 2;
+            bit = Integer.lowestOneBit(stack[base + UNSOLVED + band]);
+        }
+
+        int index = Integer.numberOfTrailingZeros(bit);
+        int next = base + STATE;
+        long placed = stats.assignments;
+
+        for (int d = 0; d < SIZE; d++) {
+            if ((stack[base + d * 3 + band] & bit) == 0)
+                continue;
+
+            System.arraycopy(stack, base, stack, next, STATE);
+            depth++;
+            dirty = 0;
+            place(next, d, band, index);
+
+            if (search())
+                return true;
+
+            depth--;
+            stats.backtracks += stats.assignments - placed;
+            placed = stats.assignments;
+            if (control.stopped() != null)
+                return false;
+        }
+
+        return false;
+    }
+
+    /**
+     * Place number d at bit index of band in the state at base, removing it from every peer.
+     */
+    private void place(final int base, final int d, final int band, final int index) {
+        int bit = 1 << index;
+
+        for (int other = 0; other < SIZE; other++) {
+            int i = base + other * 3 + band;
+            if (other != d && (stack[i] & bit) != 0) {
+                stack[i] &= ~bit;
+                dirty |= 1 << (other * 3 + band);
+            }
+        }
+
+        stack[base + d * 3 + band] &= ~BAND_PEERS[index];
+        int column = COLUMN[index % SIZE];
+        for (int b = 0; b < 3; b++)
+            if (b != band)
+                stack[base + d * 3 + b] &= ~column;
+        dirty |= 7 << (d * 3);
+
+        stack[base + UNSOLVED + band] &= ~bit;
+        stats.assignments++;
+    }
+
+    /**
+     * Prune band words and place singles until nothing changes. Only the words changed since
+     * the last pass, and the bands and numbers they belong to, are looked at again.
+     * @return false on a contradiction.
+     */
+    private boolean propagate(final int base) {
+        while (dirty != 0) {
+            int work = dirty;
+            dirty = 0;
+
+            // rows and boxes of every changed band word
+            for (int w = work; w != 0; w &= w - 1) {
+                int i = Integer.numberOfTrailingZeros(w);
+                int word = stack[base + i];
+                int pieces = PIECES[pieces(word)];
+                if (pieces == 0)
+                    return false;
+                stack[base + i] = word & EXPAND[pieces];
+            }
+
+            // naked singles in the bands with a changed word
+            for (int b = 0; b < 3; b++) {
+                int unsolved = stack[base + UNSOLVED + b];
+                if (unsolved == 0 || (work & (BAND_WORDS << b)) == 0)
+                    continue;
+
+                int once = 0;
+                int twice = 0;
+                for (int d = 0; d < SIZE; d++) {
+                    int word = stack[base + d * 3 + b];
+                    twice |= once & word;
+                    once |= word;
+                }
+                if ((unsolved & ~once) != 0)
+                    return false;
+
+                for (int singles = unsolved & ~twice; singles != 0; singles &= singles - 1) {
+                    int index = Integer.numberOfTrailingZeros(singles);
+                    int bit = 1 << index;
+                    int d = 0;
+                    while (d < SIZE && (stack[base + d * 3 + b] & bit) == 0)
+                        d++;
+                    // an earlier single took its last candidate
+                    if (d == SIZE)
+                        return false;
+                    if ((stack[base + UNSOLVED + b] & bit) != 0)
+                        place(base, d, b, index);
+                }
+            }
+
+            // hidden singles in columns, rows and boxes of the numbers with a changed word
+            for (int d = 0; d < SIZE; d++) {
+                if ((work & (7 << (d * 3))) == 0)
+                    continue;
+
+                int o = base + d * 3;
+
+                // columns : fold the 9 rows bit-sliced
+                int once = 0;
+                int twice = 0;
+                for (int b = 0; b < 3; b++) {
+                    int word = stack[o + b];
+                    for (int r = 0; r < 27; r += 9) {
+                        int row = (word >>> r) & ROW;
+                        twice |= once & row;
+                        once |= row;
+                    }
+                }
+                if (once != ROW)
+                    return false;
+
+                int singles = once & ~twice;
+                for (int b = 0; b < 3; b++) {
+                    int word = stack[o + b];
+                    int unsolved = stack[base + UNSOLVED + b];
+                    int hidden = word & unsolved & (singles | singles << 9 | singles << 18);
+
+                    // rows and boxes with a single cell left, if the word changed
+                    if ((work & (1 << (d * 3 + b))) != 0) {
+                        for (int r = 0; r < 27; r += 9) {
+                            int row = word & (ROW << r);
+                            if ((row & (row - 1)) == 0)
+                                hidden |= row & unsolved;
+                        }
+                        for (int k = 0; k < 3; k++) {
+                            int box = word & BOX[k];
+                            if ((box & (box - 1)) == 0)
+                                hidden |= box & unsolved;
+                        }
+                    }
+
+                    for (; hidden != 0; hidden &= hidden - 1) {
+                        int index = Integer.numberOfTrailingZeros(hidden);
+                        // a single placed meanwhile may have taken it
+                        if ((stack[o + b] & (1 << index)) == 0 || (stack[base + UNSOLVED + b] & (1 << index)) == 0)
+                            continue;
+                        place(base, d, b, index);
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return bit row * 3 + box set for every 3-cell piece of word that has a candidate.
+     */
+    private static int pieces(final int word) {
+        return ROW_PIECES[word & ROW] | ROW_PIECES[(word >>> 9) & ROW] << 3 | ROW_PIECES[word >>> 18] << 6;
+    }
+
+    @Override
+    public void cancel() {
+        control.cancel();
+    }
+
+    /**
+     * The givens are read at every solve, so only a cancel is left to forget.
+     */
+    @Override
+    public void reset() {
+        control.reset();
+    }
+
+    @Override
+    public void setListener(SolveListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public SolveStats getStats() {
+        return new SolveStats(stats);
+    }
+
+    @Override
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+}
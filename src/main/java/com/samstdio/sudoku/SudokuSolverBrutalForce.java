@@ -1,73 +1,200 @@
 package com.samstdio.sudoku;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Set;
-
 public class SudokuSolverBrutalForce implements SudokuSolver {
-    private SudokuGame game;
-    private List<int[]> blank_list;
-    private Set<Integer> numbers;
-    private int counter;
+    private final SudokuGame game;
+    // blanks in board order, the order of the sequential search
+    private final int[] blank_cells;
+    private int blank_total;
+    private final long numbers;
+    private final SearchOrder order;
+    private final BlankQueue queue;
+    private final int size;
+    private SolveListener listener = SolveListener.NONE;
+    private final SolveStats stats = new SolveStats();
+    private SolverMetrics metrics;
+    private final SolveControl control = new SolveControl();
 
     public SudokuSolverBrutalForce(SudokuGame game) {
+        this(game, SearchOrder.MRV);
+    }
+
+    public SudokuSolverBrutalForce(SudokuGame game, SearchOrder order) {
         this.game = game;
-        this.blank_list = new ArrayList<>(Arrays.asList(game.getBlankPosition()));
-        this.numbers = game.getPossibleNumbers();
+        this.numbers = game.getNumbersMask();
+        this.order = order;
+        this.size = game.getSize();
+        this.blank_cells = new int[size * size];
+        this.queue = new BlankQueue(size * size, Long.bitCount(numbers));
+
+        reset();
     }
 
     @Override
-    public void solve() {
-        int index = 0;
+    public void reset() {
+        control.reset();
+        blank_total = 0;
+        queue.clear();
+
+        for (int cell = 0; cell < size * size; cell++) {
+            if (!game.isBlank(cell / size, cell % size))
+                continue;
+
+            blank_cells[blank_total++] = cell;
+            if (order == SearchOrder.MRV)
+                queue.add(cell, Long.bitCount(game.getCandidateMask(cell / size, cell % size)));
+        }
+    }
 
-        while (0 < blank_list.size()) {
-            counter++;
-            int[] blank = blank_list.get(index);
+    /**
+     * Depth-first search over the blanks.
+     * Each blank tries every number the game still accepts; a number is taken back with
+     * unassign when nothing below it works, so the search always ends, either solved or
+     * with every combination ruled out. A search that gives up unwinds the same way,
+     * leaving the board as it was.
+     */
+    @Override
+    public SolveResult solve(SolveBudget budget) {
+        control.start(budget);
+        stats.start();
 
-            boolean blank_solved = false;
+        boolean solved = game.isConsistent()
+                && (order == SearchOrder.MRV ? searchMinimum() : search(0));
 
-            System.out.print(String.format("Trying (%d) row, (%d) col : ", blank[0], blank[1]));
+        stats.finish(solved);
+        if (metrics != null)
+            metrics.record(stats);
 
-            blank_solved = solveSingleBlank(blank);
+        listener.onFinish(game, solved);
 
-            if (0 == blank_list.size())
-                break;
+        if (solved)
+            return SolveResult.SOLVED;
 
-            if (!blank_solved) {
-                index++;
-            }
-            index %= blank_list.size();
+        return control.stopped() != null ? control.stopped() : SolveResult.UNSOLVABLE;
+    }
 
-            System.out.println("Solved!");
-            this.game.printSolution();
-        }
+    @Override
+    public void cancel() {
+        control.cancel();
     }
 
-    private boolean solveSingleBlank(final int[] row_col) {
-        int row = row_col[0];
-        int col = row_col[1];
+    @Override
+    public void setListener(SolveListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public SolveStats getStats() {
+        return new SolveStats(stats);
+    }
+
+    @Override
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    private boolean search(final int depth) {
+        if (depth == blank_total)
+            return true;
+
+        if (control.stop(++stats.nodes))
+            return false;
+
+        int row = blank_cells[depth] / size;
+        int col = blank_cells[depth] % size;
 
-        boolean solved = false;
+        listener.onTry(row, col);
 
         // Brutal force strategy
-        // Assign any number that is accepted.
-        for (int num : numbers) {
-            System.out.print(num + " ");
+        // Assign any number that is accepted, take it back when it leads nowhere.
+        for (long remaining = numbers; remaining != 0; remaining &= remaining - 1) {
+            int num = Long.numberOfTrailingZeros(remaining);
+
             switch (game.assign(row, col, num)) {
                 case OK:
                 case SOLVED:
-                    System.out.println(String.format("\n%d,%d is %d", row, col, num));
-                    blank_list.remove(row_col);
-                    solved = true;
+                    stats.assignments++;
+                    listener.onAssign(row, col, num);
+
+                    if (forwardCheck(depth + 1) && search(depth + 1))
+                        return true;
+
+                    game.unassign(row, col);
+                    stats.backtracks++;
+                    listener.onUnassign(row, col);
+
+                    if (control.stopped() != null)
+                        return false;
                     break;
+                default:
+                    stats.rejected++;
             }
+        }
+
+        return false;
+    }
+
+    /**
+     * Expand the blank with the fewest candidates first.
+     * A blank with no candidate surfaces at the front of the queue, ending the branch at once.
+     */
+    private boolean searchMinimum() {
+        int cell = queue.peekMin();
+        if (cell < 0)
+            return true;
+
+        if (control.stop(++stats.nodes) || queue.count(cell) == 0)
+            return false;
+
+        int row = cell / size;
+        int col = cell % size;
+        long candidates = game.getCandidateMask(row, col);
+
+        listener.onTry(row, col);
+        queue.remove(cell);
+
+        while (candidates != 0) {
+            int num = Long.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
 
-            if (solved)
+            game.assign(row, col, num);
+            stats.assignments++;
+            listener.onAssign(row, col, num);
+            updatePeers(cell);
+
+            if (searchMinimum())
+                return true;
+
+            game.unassign(row, col);
+            stats.backtracks++;
+            listener.onUnassign(row, col);
+            updatePeers(cell);
+
+            if (control.stopped() != null)
                 break;
         }
 
-        return solved;
+        queue.add(cell, Long.bitCount(game.getCandidateMask(row, col)));
+
+        return false;
+    }
+
+    private void updatePeers(final int cell) {
+        for (int peer : game.getPeers(cell)) {
+            if (queue.contains(peer))
+                queue.update(peer, Long.bitCount(game.getCandidateMask(peer / size, peer % size)));
+        }
+    }
+
+    /**
+     * @return false if a remaining blank has no candidate left, so the current branch is dead.
+     */
+    private boolean forwardCheck(final int from) {
+        for (int i = from; i < blank_total; i++) {
+            if (0 == game.getCandidateMask(blank_cells[i] / size, blank_cells[i] % size))
+                return false;
+        }
+
+        return true;
     }
 
     public static void main(String[] args) {
@@ -96,6 +223,7 @@ public class SudokuSolverBrutalForce implements SudokuSolver {
 
         SudokuGame game = new SudokuGame(board, solution, 9,0);
         SudokuSolver solver = new SudokuSolverBrutalForce(game);
+        solver.setListener(new ConsoleSolveListener());
         solver.solve();
     }
 }
@@ -0,0 +1,113 @@
+package com.samstdio.sudoku;
+
+import java.util.function.Function;
+
+/**
+ * Looks the puzzle up in a SolveCache before solving it, and stores what it solves.
+ *
+ * The solver behind it is created by factory on the first miss only, so repeated puzzles
+ * never pay for building one. A hit fills the board without search and its stats count the
+ * numbers placed; listeners hear only onFinish for it.
+ */
+public class SudokuSolverCached implements SudokuSolver {
+    private final SudokuGame game;
+    private final SolveCache cache;
+    private final Function<SudokuGame, SudokuSolver> factory;
+    private volatile SudokuSolver solver;
+    private volatile boolean cancelled;
+    private SolveListener listener = SolveListener.NONE;
+    private SolveStats stats = new SolveStats();
+    private SolverMetrics metrics;
+
+    public SudokuSolverCached(SudokuGame game, SolveCache cache, Function<SudokuGame, SudokuSolver> factory) {
+        this.game = game;
+        this.cache = cache;
+        this.factory = factory;
+    }
+
+    @Override
+    public SolveResult solve(SolveBudget budget) {
+        if (cancelled)
+            return finish(SolveResult.CANCELLED, 0);
+
+        int blanks = game.getBlankCount();
+        CanonicalForm form = CanonicalForm.of(game);
+
+        SolveResult result = cache.lookup(form, game);
+        if (result != null)
+            return finish(result, blanks - game.getBlankCount());
+
+        SudokuSolver solver = solver();
+        result = solver.solve(budget);
+        stats = solver.getStats();
+        cache.store(form, result, game);
+
+        return result;
+    }
+
+    private SolveResult finish(final SolveResult result, final int placed) {
+        boolean solved = result == SolveResult.SOLVED;
+
+        stats.start();
+        stats.assignments = placed;
+        stats.finish(solved);
+        if (metrics != null)
+            metrics.record(stats);
+
+        listener.onFinish(game, solved);
+
+        return result;
+    }
+
+    private SudokuSolver solver() {
+        SudokuSolver solver = this.solver;
+        if (solver == null) {
+            solver = factory.apply(game);
+            solver.setListener(listener);
+            solver.setMetrics(metrics);
+            this.solver = solver;
+
+            // cancel() may have missed it
+            if (cancelled)
+                solver.cancel();
+        }
+        return solver;
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+
+        SudokuSolver solver = this.solver;
+        if (solver != null)
+            solver.cancel();
+    }
+
+    @Override
+    public void reset() {
+        cancelled = false;
+
+        SudokuSolver solver = this.solver;
+        if (solver != null)
+            solver.reset();
+    }
+
+    @Override
+    public void setListener(SolveListener listener) {
+        this.listener = listener;
+        if (solver != null)
+            solver.setListener(listener);
+    }
+
+    @Override
+    public SolveStats getStats() {
+        return new SolveStats(stats);
+    }
+
+    @Override
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+        if (solver != null)
+            solver.setMetrics(metrics);
+    }
+}
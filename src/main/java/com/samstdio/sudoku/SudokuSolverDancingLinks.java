@@ -0,0 +1,407 @@
+package com.samstdio.sudoku;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Exact cover solver (Knuth's Algorithm X with Dancing Links).
+ *
+ * Every (row, col, number) choice is a matrix row covering four constraint columns :
+ * cell filled, number in row, number in column, number in section.
+ * The whole matrix lives in preallocated int arrays indexed by node, and the search keeps
+ * its stack in an int array too, so nothing is allocated while searching.
+ * countSolutions resumes the search after the first solution, so it costs at most one more
+ * search than solve.
+ */
+public class SudokuSolverDancingLinks implements SudokuSolver, SolutionCounter {
+    private static final int ROOT = 0;
+
+    private final SudokuGame game;
+    private final int size;
+    private final int box;
+    private final int[] numbers;
+    private final int[] number_index;
+
+    // node links. nodes 1..columns are column headers, then 4 nodes per matrix row.
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    // per column header : number of nodes left in the column, and whether it is covered.
+    private final int[] count;
+    private final boolean[] covered;
+
+    private final int columns;
+    private final int first_row_node;
+
+    // search stack : chosen node per depth. given rows are pushed first.
+    private final int[] stack;
+    private int givens;
+    private int depth;
+    private SolveListener listener = SolveListener.NONE;
+    private final SolveStats stats = new SolveStats();
+    private SolverMetrics metrics;
+    private final SolveControl control = new SolveControl();
+
+    public SudokuSolverDancingLinks(SudokuGame game) {
+        this.game = game;
+        this.size = game.getSize();
+        this.box = game.getBox();
+        long numbers_mask = game.getNumbersMask();
+
+        if (Long.bitCount(numbers_mask) != size)
+            throw new IllegalArgumentException("expected " + size + " numbers but got " + Long.bitCount(numbers_mask));
+
+        this.numbers = new int[size];
+        for (int i = 0; i < size; i++, numbers_mask &= numbers_mask - 1)
+            numbers[i] = Long.numberOfTrailingZeros(numbers_mask);
+
+        this.number_index = new int[numbers[numbers.length - 1] + 1];
+        Arrays.fill(number_index, -1);
+        for (int i = 0; i < numbers.length; i++)
+            number_index[numbers[i]] = i;
+
+        int cells = size * size;
+        this.columns = 4 * cells;
+        this.first_row_node = columns + 1;
+
+        int nodes = first_row_node + 4 * cells * size;
+        this.left = new int[nodes];
+        this.right = new int[nodes];
+        this.up = new int[nodes];
+        this.down = new int[nodes];
+        this.column = new int[nodes];
+        this.count = new int[columns + 1];
+        this.covered = new boolean[columns + 1];
+        this.stack = new int[cells];
+
+        build();
+    }
+
+    private void build() {
+        // header list : root <-> 1 <-> 2 ... <-> columns
+        for (int c = 0; c <= columns; c++) {
+            left[c] = c == 0 ? columns : c - 1;
+            right[c] = c == columns ? 0 : c + 1;
+            up[c] = c;
+            down[c] = c;
+            column[c] = c;
+        }
+
+        int cells = size * size;
+        int node = first_row_node;
+
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int sec = (row / box) * box + col / box;
+
+                for (int d = 0; d < size; d++) {
+                    int[] cols = {
+                            1 + row * size + col,
+                            1 + cells + row * size + d,
+                            1 + 2 * cells + col * size + d,
+                            1 + 3 * cells + sec * size + d
+                    };
+
+                    for (int k = 0; k < 4; k++) {
+                        int n = node + k;
+                        int c = cols[k];
+
+                        left[n] = k == 0 ? node + 3 : n - 1;
+                        right[n] = k == 3 ? node : n + 1;
+
+                        // append at the bottom of column c
+                        column[n] = c;
+                        up[n] = up[c];
+                        down[n] = c;
+                        down[up[c]] = n;
+                        up[c] = n;
+                        count[c]++;
+                    }
+
+                    node += 4;
+                }
+            }
+        }
+    }
+
+    /**
+     * Load the givens, search, and write the solution back into the game.
+     * The matrix is restored afterwards, also when the search gives up.
+     */
+    @Override
+    public SolveResult solve(SolveBudget budget) {
+        control.start(budget);
+        stats.start();
+
+        boolean solved = loadGivens() && search(ROOT);
+
+        if (solved) {
+            for (int i = givens; i < depth; i++) {
+                int id = (stack[i] - first_row_node) / 4;
+                int cell = id / size;
+                game.assign(cell / size, cell % size, numbers[id % size]);
+                listener.onAssign(cell / size, cell % size, numbers[id % size]);
+            }
+        }
+
+        restore();
+        finish(solved);
+        listener.onFinish(game, solved);
+
+        if (solved)
+            return SolveResult.SOLVED;
+
+        return control.stopped() != null ? control.stopped() : SolveResult.UNSOLVABLE;
+    }
+
+    /**
+     * Counting has no budget, but cancel() and interruption still stop it.
+     * @throws CancellationException if it was stopped.
+     */
+    @Override
+    public SolutionCount countSolutions() {
+        control.start(SolveBudget.UNLIMITED);
+        stats.start();
+
+        SolutionCount result = SolutionCount.NONE;
+
+        if (loadGivens() && search(ROOT)) {
+            result = SolutionCount.UNIQUE;
+
+            // a board the givens already fill has nothing to back up into
+            if (depth > givens && search(backtrack()))
+                result = SolutionCount.MULTIPLE;
+        }
+
+        restore();
+        finish(result != SolutionCount.NONE);
+
+        if (control.stopped() != null)
+            throw new CancellationException("solution count cancelled");
+
+        return result;
+    }
+
+    @Override
+    public void cancel() {
+        control.cancel();
+    }
+
+    /**
+     * The matrix is restored after every solve and the givens are read at the next, so only
+     * a cancel is left to forget.
+     */
+    @Override
+    public void reset() {
+        control.reset();
+    }
+
+    private void finish(final boolean solved) {
+        stats.finish(solved);
+        if (metrics != null)
+            metrics.record(stats);
+    }
+
+    @Override
+    public void setListener(SolveListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public SolveStats getStats() {
+        return new SolveStats(stats);
+    }
+
+    @Override
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Select the matrix rows of the numbers already on the board.
+     * @return false if the givens conflict with each other.
+     */
+    private boolean loadGivens() {
+        depth = 0;
+        givens = 0;
+
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (game.isBlank(row, col))
+                    continue;
+
+                int num = game.getNumber(row, col);
+                if (num < 0 || num >= number_index.length || number_index[num] < 0)
+                    return false;
+
+                int node = rowNode(row, col, number_index[num]);
+                for (int k = 0; k < 4; k++)
+                    if (covered[column[node + k]])
+                        return false;
+
+                for (int k = 0; k < 4; k++)
+                    cover(column[node + k]);
+
+                stack[depth++] = node;
+                givens = depth;
+            }
+        }
+
+        return true;
+    }
+
+    private int rowNode(final int row, final int col, final int d) {
+        return first_row_node + 4 * ((row * size + col) * size + d);
+    }
+
+    /**
+     * Iterative Algorithm X, choosing the column with the fewest rows first.
+     * @param current ROOT to start, or the row backtrack returned to go on from the last solution.
+     * @return true with the solution rows on the stack, false with the stack back at the givens
+     *         or, when the budget ran out, wherever the search was.
+     */
+    private boolean search(int current) {
+        while (true) {
+            if (current == ROOT) {
+                // go down one level
+                if (right[ROOT] == ROOT)
+                    return true;
+
+                // every chosen column has its row on the stack here, so restore can unwind
+                if (control.stop(++stats.nodes))
+                    return false;
+
+                int c = chooseColumn();
+
+                if (count[c] == 0) {
+                    current = -1;
+                } else {
+                    cover(c);
+                    current = down[c];
+                }
+            }
+
+            if (current != ROOT && current != -1 && current != column[current]) {
+                // try row `current`
+                for (int j = right[current]; j != current; j = right[j])
+                    cover(column[j]);
+
+                stack[depth++] = current;
+                stats.assignments++;
+                current = ROOT;
+                continue;
+            }
+
+            if (current != -1) {
+                // every row of the column failed
+                uncover(column[current]);
+            }
+
+            // back up one level and move on to the next row there
+            if (depth == givens)
+                return false;
+
+            current = backtrack();
+        }
+    }
+
+    /**
+     * Take the last chosen row off the stack.
+     * @return the next row to try in its column, or the column header when it was the last.
+     */
+    private int backtrack() {
+        stats.backtracks++;
+        int r = stack[--depth];
+        for (int j = left[r]; j != r; j = left[j])
+            uncover(column[j]);
+
+        return down[r];
+    }
+
+    private int chooseColumn() {
+        int best = right[ROOT];
+
+        for (int c = right[best]; c != ROOT; c = right[c]) {
+            if (count[c] < count[best]) {
+                best = c;
+                if (count[best] <= 1)
+                    break;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Take the search and the givens back out of the matrix, leaving it as built.
+     */
+    private void restore() {
+        while (depth > givens) {
+            int r = stack[--depth];
+            for (int j = left[r]; j != r; j = left[j])
+                uncover(column[j]);
+            uncover(column[r]);
+        }
+
+        // givens were selected by covering all four columns in order
+        while (depth > 0) {
+            int r = stack[--depth];
+            for (int k = 3; k >= 0; k--)
+                uncover(column[r + k]);
+        }
+    }
+
+    private void cover(final int c) {
+        covered[c] = true;
+        right[left[c]] = right[c];
+        left[right[c]] = left[c];
+
+        for (int i = down[c]; i != c; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                up[down[j]] = up[j];
+                down[up[j]] = down[j];
+                count[column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(final int c) {
+        for (int i = up[c]; i != c; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                count[column[j]]++;
+                up[down[j]] = j;
+                down[up[j]] = j;
+            }
+        }
+
+        right[left[c]] = c;
+        left[right[c]] = c;
+        covered[c] = false;
+    }
+
+    public static void main(String[] args) {
+        // 17 clues
+        final int[][] board = {
+                {0,0,0,0,0,0,0,1,0},
+                {4,0,0,0,0,0,0,0,0},
+                {0,2,0,0,0,0,0,0,0},
+                {0,0,0,0,5,0,4,0,7},
+                {0,0,8,0,0,0,3,0,0},
+                {0,0,1,0,9,0,0,0,0},
+                {3,0,0,4,0,0,2,0,0},
+                {0,5,0,1,0,0,0,0,0},
+                {0,0,0,8,0,6,0,0,0}
+        };
+
+        long start = System.nanoTime();
+        SudokuGame game = new SudokuGame(board, null, 9, 0);
+        SudokuSolver solver = new SudokuSolverDancingLinks(game);
+
+        solver.setListener(new ConsoleSolveListener());
+        solver.solve();
+
+        System.out.println("Elapsed time in microseconds : " + (System.nanoTime() - start) / 1000);
+    }
+}
@@ -1,142 +1,273 @@
 package com.samstdio.sudoku;
 
-import java.util.*;
-
 public class SudokuSolverHuman implements SudokuSolver {
     private SudokuGame game;
-    private List<int[]> blank_list;
-    private Set<Integer> numbers;
-    private int counter;
+    private BlankQueue queue;
+    private final CandidateGrid grid;
+    private final DeductionPipeline pipeline;
+    private final int size;
+    private SolveListener listener = SolveListener.NONE;
+    private final SolveStats stats = new SolveStats();
+    private SolverMetrics metrics;
+    private final SolveControl control = new SolveControl();
+    private final boolean search;
+    private final long numbers;
+
+    // cells placed, in order, so a failed guess can take them back
+    private final int[] trail;
+    private int trail_size;
+    // one frame per open guess: the cell, its untried numbers and the state before it
+    private final int[] guess_cell;
+    private final long[] guess_rest;
+    private final int[] guess_trail;
+    private final long[][] saved_masks;
+    private final int[][] saved_values;
+    private int depth;
 
     public SudokuSolverHuman(SudokuGame game) {
+        this(game, DeductionPipeline.standard(), true);
+    }
+
+    /**
+     * Deduction only, gives up where the pipeline stalls. Used for grading.
+     */
+    SudokuSolverHuman(SudokuGame game, DeductionPipeline pipeline) {
+        this(game, pipeline, false);
+    }
+
+    SudokuSolverHuman(SudokuGame game, DeductionPipeline pipeline, boolean search) {
         this.game = game;
-        this.blank_list = new ArrayList(Arrays.asList(game.getBlankPosition()));
-        this.numbers = game.getPossibleNumbers();
+        this.size = game.getSize();
+        this.queue = new BlankQueue(size * size, Long.bitCount(game.getNumbersMask()));
+        this.grid = new CandidateGrid(game);
+        this.pipeline = pipeline;
+        this.search = search;
+        this.numbers = game.getNumbersMask();
+
+        int cells = size * size;
+        this.trail = new int[cells];
+        this.guess_cell = new int[cells];
+        this.guess_rest = new long[cells];
+        this.guess_trail = new int[cells];
+        this.saved_masks = new long[cells][];
+        this.saved_values = new int[cells][];
+
+        queueBlanks();
     }
 
     @Override
-    public void solve() {
-        int index = 0;
+    public void reset() {
+        control.reset();
+        grid.reset(game);
+        queue.clear();
+        queueBlanks();
+    }
 
-        while (0 < blank_list.size()) {
-            counter++;
-            int[] blank = blank_list.get(index);
+    private void queueBlanks() {
+        for (int i = 0; i < game.getBlankCount(); i++) {
+            int cell = game.getBlankCell(i);
+            long mask = game.getCandidateMask(cell / size, cell % size);
 
-            boolean blank_solved = false;
+            grid.setMask(cell, mask);
+            queue.add(cell, Long.bitCount(mask));
+        }
+    }
 
-            System.out.print(String.format("[%d] Trying (%d) row, (%d) col : ", counter, blank[0], blank[1]));
+    /**
+     * Visit the blank with the fewest candidates first.
+     * When even that blank has more than one candidate, the deduction pipeline removes more
+     * candidates from the grid. Once the pipeline cannot remove any, the solver guesses the
+     * lowest candidate of that blank and goes on deducing; a blank left without candidates
+     * takes back everything since the last guess and tries its next candidate.
+     * Without search the solver stops where the pipeline stalls.
+     * A solve that gives up keeps the numbers placed before the first guess.
+     */
+    @Override
+    public SolveResult solve(SolveBudget budget) {
+        control.start(budget);
+        stats.start();
+        trail_size = 0;
+        depth = 0;
+
+        // givens repeating a number leave no solution, however the blanks are filled
+        if (!game.isConsistent())
+            return finish(SolveResult.UNSOLVABLE);
+
+        while (0 < queue.size()) {
+            if (control.stop(++stats.nodes)) {
+                if (0 < depth) {
+                    restore(0);
+                    depth = 0;
+                }
+                return finish(control.stopped());
+            }
 
-            blank_solved = solveSingleBlank(blank);
+            int cell = queue.peekMin();
+            int row = cell / size;
+            int col = cell % size;
+            long mask = grid.mask(cell);
+
+            listener.onTry(row, col);
+
+            if (Long.bitCount(mask) == 1) {
+                if (place(cell, Long.numberOfTrailingZeros(mask))) {
+                    stats.technique(Technique.NAKED_SINGLE);
+                    continue;
+                }
+            } else if (mask != 0) {
+                Technique technique = pipeline.apply(grid);
+                if (technique != null) {
+                    stats.technique(technique);
+                    listener.onEliminate(technique);
+                    updateQueue();
+                    continue;
+                }
+            }
 
-            if (0 == blank_list.size())
-                break;
+            listener.onStuck(row, col);
 
-            if (!blank_solved) {
-                System.out.println(String.format("\n\tCannot solve (%d) row (%d) col", blank[0], blank[1]));
-                index++;
-            }
+            if (!search)
+                return finish(SolveResult.UNSOLVABLE);
 
-            index %= blank_list.size();
+            // stalled with choices left, or a contradiction
+            if (1 < Long.bitCount(mask) && grid.covers(numbers)) {
+                stats.technique(Technique.GUESS);
+                guess(cell, mask);
+            }
+            if (!backtrack())
+                return finish(SolveResult.UNSOLVABLE);
         }
 
-        System.out.println("Solved!");
-        this.game.printBoard();
+        return finish(SolveResult.SOLVED);
     }
 
-    private boolean solveSingleBlank(final int[] row_col) {
-        int row = row_col[0];
-        int col = row_col[1];
-
-        boolean solved = false;
+    private SolveResult finish(final SolveResult result) {
+        boolean solved = result == SolveResult.SOLVED;
 
-        int[] possible_numbers = getCandidates(row, col);
+        stats.finish(solved);
+        if (metrics != null)
+            metrics.record(stats);
 
-        if (possible_numbers.length == 1) {
-            switch (game.assign(row, col, possible_numbers[0])) {
-                case OK:
-                case SOLVED:
-                    System.out.println(String.format("\n(%d) row (%d) col is (%d)", row, col, possible_numbers[0]));
-                    blank_list.remove(row_col);
-                    solved = true;
-            }
-        } else {
-            // TODO more strategy
-        }
+        listener.onFinish(game, solved);
 
-        return solved;
+        return result;
     }
 
-    /**
-     * Find candidate numbers for row, col
-     * @param row
-     * @param col
-     * @return
-     */
-    private int[] getCandidates(int row, int col) {
-        Set<Integer> row_possibles = getRowPossible(row);
-        if (row_possibles.size() == 1)
-            return setToArray(row_possibles);
-
-        Set<Integer> col_possibles = getColPossible(col);
-        if (col_possibles.size() == 1)
-            return setToArray(col_possibles);
-
-        Set<Integer> sec_possibles = getSecPossible(row, col);
-        if (sec_possibles.size() == 1)
-            return setToArray(sec_possibles);
-
-        Set numbers = game.getPossibleNumbers();
-
-        numbers.retainAll(row_possibles);
-        numbers.retainAll(col_possibles);
-        numbers.retainAll(sec_possibles);
-
-        if (numbers.size() == 1)
-            return setToArray(numbers);
-        else {
-            // TODO more possibility?
-            ;
-        }
+    @Override
+    public void cancel() {
+        control.cancel();
+    }
 
-        return setToArray(numbers);
+    @Override
+    public void setListener(SolveListener listener) {
+        this.listener = listener;
+    }
 
+    @Override
+    public SolveStats getStats() {
+        return new SolveStats(stats);
     }
 
-    private Set<Integer> getSecPossible(int row, int col) {
-        int[] sec_nums = game.getSection(row, col);
-        return getPossibleNumbers(sec_nums);
+    @Override
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
     }
 
-    private Set<Integer> getColPossible(int col) {
-        int[] col_nums = game.getColumn(col);
-        return getPossibleNumbers(col_nums);
+    private boolean place(final int cell, final int num) {
+        int row = cell / size;
+        int col = cell % size;
+
+        switch (game.assign(row, col, num)) {
+            case OK:
+            case SOLVED:
+                stats.assignments++;
+                listener.onAssign(row, col, num);
+                grid.place(cell, num);
+                queue.remove(cell);
+                updatePeers(cell);
+                trail[trail_size++] = cell;
+                return true;
+            default:
+                stats.rejected++;
+                return false;
+        }
     }
 
-    private Set<Integer> getRowPossible(int row) {
-        int[] row_nums = game.getRow(row);
-        return getPossibleNumbers(row_nums);
+    /**
+     * Open a frame for cell, remembering the grid as it is before any of mask is tried.
+     */
+    private void guess(final int cell, final long mask) {
+        if (saved_masks[depth] == null) {
+            saved_masks[depth] = new long[size * size];
+            saved_values[depth] = new int[size * size];
+        }
+        grid.save(saved_masks[depth], saved_values[depth]);
+
+        guess_cell[depth] = cell;
+        guess_rest[depth] = mask;
+        guess_trail[depth] = trail_size;
+        depth++;
     }
 
-    private Set<Integer> getPossibleNumbers(final int[] numbers) {
-        Set<Integer> possibles = game.getPossibleNumbers();
+    /**
+     * Go back to the innermost guess with an untried number and place that number,
+     * closing the frames that have none left.
+     * @return false when no guess is left, the board has no solution.
+     */
+    private boolean backtrack() {
+        while (0 < depth) {
+            int frame = depth - 1;
+
+            restore(frame);
 
-        for (int num : numbers)
-            possibles.remove(num);
+            long rest = guess_rest[frame];
+            if (rest == 0) {
+                depth--;
+                continue;
+            }
+            guess_rest[frame] = rest & (rest - 1);
+
+            if (place(guess_cell[frame], Long.numberOfTrailingZeros(rest)))
+                return true;
+        }
 
-        return possibles;
+        return false;
+    }
+
+    /**
+     * Take back every number placed since guess frame, with the candidates as they were then.
+     */
+    private void restore(final int frame) {
+        undo(guess_trail[frame]);
+        grid.load(saved_masks[frame], saved_values[frame]);
+        updateQueue();
     }
 
-    private static int[] setToArray(final Set<Integer> int_set) {
-        int[] ret = new int[int_set.size()];
-        Iterator<Integer> iter = int_set.iterator();
+    private void undo(final int position) {
+        while (position < trail_size) {
+            int cell = trail[--trail_size];
+            int row = cell / size;
+            int col = cell % size;
 
-        int i = 0;
-        while (iter.hasNext())
-            ret[i++] = iter.next();
+            game.unassign(row, col);
+            stats.backtracks++;
+            listener.onUnassign(row, col);
+            queue.add(cell, 0);
+        }
+    }
 
-        Arrays.sort(ret);
+    private void updatePeers(final int cell) {
+        for (int peer : game.getPeers(cell)) {
+            if (queue.contains(peer))
+                queue.update(peer, Long.bitCount(grid.mask(peer)));
+        }
+    }
 
-        return ret;
+    private void updateQueue() {
+        for (int cell = 0; cell < size * size; cell++) {
+            if (queue.contains(cell))
+                queue.update(cell, Long.bitCount(grid.mask(cell)));
+        }
     }
 
     public static void main(String[] args) {
@@ -163,7 +294,7 @@ public class SudokuSolverHuman implements SudokuSolver {
                 {6,7,8,9,1,2,3,4,5}
         };
 
-        // cannot solve
+        // needs guessing
 //        final int[][] board_hard = {
 //                {3,0,6,0,0,0,0,8,0},
 //                {0,0,0,0,4,0,2,0,0},
@@ -175,7 +306,7 @@ public class SudokuSolverHuman implements SudokuSolver {
 //                {0,0,4,0,2,0,0,0,0},
 //                {0,8,0,0,0,0,9,0,3}
 //        };
-        // cannot solve
+        // needs guessing
 //        final int[][] board_hard = {
 //                {0,0,0,0,0,1,0,0,2},
 //                {0,0,0,0,0,6,8,5,0},
@@ -217,6 +348,7 @@ public class SudokuSolverHuman implements SudokuSolver {
         SudokuGame game = new SudokuGame(board_easy, solution_easy, 9,0);
         SudokuSolverHuman solver = new SudokuSolverHuman(game);
 
+        solver.setListener(new ConsoleSolveListener());
         solver.solve();
 
         System.out.println("Elapsed time in milliseconds : " + (System.currentTimeMillis() - start));
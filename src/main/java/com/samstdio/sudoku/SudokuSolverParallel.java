@@ -0,0 +1,361 @@
+package com.samstdio.sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Depth-first search of one board spread over the threads of a ForkJoinPool.
+ *
+ * The blank with the fewest candidates is expanded first, as in SudokuSolverBrutalForce.
+ * At the first split_depth branch points (blanks with two or more candidates) every
+ * candidate becomes a task of its own, on its own copy of the game, and idle threads steal
+ * them. Below that a task searches sequentially on its copy.
+ * Looking for one solution, the first task to find it stops its siblings through a shared
+ * flag they read at every node. Counting, the tasks keep going until the limit is reached.
+ *
+ * Nodes are added to the shared count every CHECK_INTERVAL nodes of a task, so the node
+ * budget may be overrun by that much per running task. Listeners only hear of the final
+ * assignments and onFinish, the search itself runs on many threads.
+ */
+public class SudokuSolverParallel implements SudokuSolver, SolutionCounter {
+    public static final int DEFAULT_SPLIT_DEPTH = 6;
+    private static final int CHECK_INTERVAL = 1 << 6;
+
+    private final SudokuGame game;
+    private final ForkJoinPool pool;
+    private final int split_depth;
+    private final int size;
+    private volatile boolean cancelled;
+    private SolveListener listener = SolveListener.NONE;
+    private final SolveStats stats = new SolveStats();
+    private SolverMetrics metrics;
+
+    public SudokuSolverParallel(SudokuGame game) {
+        this(game, ForkJoinPool.commonPool(), DEFAULT_SPLIT_DEPTH);
+    }
+
+    /**
+     * @param pool runs the tasks, shared with whatever else uses it.
+     * @param split_depth branch points split into tasks, 0 for a sequential search.
+     */
+    public SudokuSolverParallel(SudokuGame game, ForkJoinPool pool, int split_depth) {
+        if (split_depth < 0)
+            throw new IllegalArgumentException("split depth should not be negative");
+
+        this.game = game;
+        this.pool = pool;
+        this.split_depth = split_depth;
+        this.size = game.getSize();
+    }
+
+    /**
+     * Search for the first solution and write it back into the game.
+     * The game is only written once a solution is found, so a solve that gives up leaves it
+     * as it was.
+     */
+    @Override
+    public SolveResult solve(SolveBudget budget) {
+        stats.start();
+
+        Search search = new Search(1, budget);
+        run(search);
+        // a solution found before the budget ran out still counts
+        SudokuGame solution = search.first.get();
+
+        if (solution != null) {
+            for (int cell = 0; cell < size * size; cell++) {
+                int row = cell / size;
+                int col = cell % size;
+                if (game.isBlank(row, col)) {
+                    game.assign(row, col, solution.getNumber(row, col));
+                    listener.onAssign(row, col, solution.getNumber(row, col));
+                }
+            }
+        }
+
+        finish(search, solution != null);
+        listener.onFinish(game, solution != null);
+
+        if (solution != null)
+            return SolveResult.SOLVED;
+
+        return search.stopped != null ? search.stopped : SolveResult.UNSOLVABLE;
+    }
+
+    /**
+     * Counting has no budget, but cancel() and interruption still stop it.
+     * @throws CancellationException if it was stopped.
+     */
+    @Override
+    public SolutionCount countSolutions() {
+        long count = countSolutions(2);
+
+        return count == 0 ? SolutionCount.NONE : count == 1 ? SolutionCount.UNIQUE : SolutionCount.MULTIPLE;
+    }
+
+    /**
+     * Count solutions with every task running until limit of them are found.
+     * The game is left as it is.
+     * @param limit at least 1, Long.MAX_VALUE to count them all.
+     * @return solutions found, at most limit.
+     * @throws CancellationException if it was stopped.
+     */
+    public long countSolutions(long limit) {
+        if (limit < 1)
+            throw new IllegalArgumentException("limit should be at least 1");
+
+        stats.start();
+
+        Search search = new Search(limit, SolveBudget.UNLIMITED);
+        run(search);
+        finish(search, search.solutions.get() > 0);
+
+        if (search.stopped != null)
+            throw new CancellationException("solution count cancelled");
+
+        return Math.min(search.solutions.get(), limit);
+    }
+
+    private void run(final Search search) {
+        if (!game.isConsistent())
+            return;
+
+        ForkJoinTask<Void> task = pool.submit(new Branch(search, new SudokuGame(game), 0));
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            search.stop(SolveResult.CANCELLED);
+            task.join();
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void finish(final Search search, final boolean solved) {
+        stats.nodes = search.nodes.get();
+        stats.assignments = search.assignments.sum();
+        stats.backtracks = search.backtracks.sum();
+        stats.finish(solved);
+        if (metrics != null)
+            metrics.record(stats);
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Tasks copy the game at every solve, so only a cancel is left to forget.
+     */
+    @Override
+    public void reset() {
+        cancelled = false;
+    }
+
+    @Override
+    public void setListener(SolveListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public SolveStats getStats() {
+        return new SolveStats(stats);
+    }
+
+    @Override
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * State shared by the tasks of one solve or count.
+     */
+    private final class Search {
+        private final long limit;
+        private final long max_nodes;
+        private final boolean timed;
+        private final long deadline;
+        private final AtomicLong nodes = new AtomicLong();
+        private final LongAdder assignments = new LongAdder();
+        private final LongAdder backtracks = new LongAdder();
+        private final AtomicLong solutions = new AtomicLong();
+        private final AtomicReference<SudokuGame> first = new AtomicReference<>();
+        // set once the tasks should wind down, read at every node
+        private volatile boolean done;
+        private volatile SolveResult stopped;
+
+        Search(final long limit, final SolveBudget budget) {
+            this.limit = limit;
+            this.max_nodes = budget.getMaxNodes();
+            this.timed = budget.getTimeoutNanos() != Long.MAX_VALUE;
+            this.deadline = System.nanoTime() + budget.getTimeoutNanos();
+
+            if (cancelled)
+                stop(SolveResult.CANCELLED);
+        }
+
+        /**
+         * Wind down for result, unless the tasks already are.
+         */
+        void stop(final SolveResult result) {
+            if (!done)
+                stopped = result;
+            done = true;
+        }
+
+        /**
+         * @param visited nodes a task visited since it last reported.
+         */
+        void check(final long visited) {
+            if (nodes.addAndGet(visited) > max_nodes)
+                stop(SolveResult.BUDGET_EXCEEDED);
+            else if (cancelled)
+                stop(SolveResult.CANCELLED);
+            else if (timed && System.nanoTime() - deadline > 0)
+                stop(SolveResult.BUDGET_EXCEEDED);
+        }
+
+        void found(final SudokuGame solved) {
+            first.compareAndSet(null, new SudokuGame(solved));
+            if (solutions.incrementAndGet() >= limit)
+                done = true;
+        }
+    }
+
+    /**
+     * The search below a board, split into more tasks while splits is below split_depth.
+     */
+    private final class Branch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Search search;
+        private final SudokuGame board;
+        private final int splits;
+        private long nodes;
+        private long assignments;
+        private long backtracks;
+
+        Branch(final Search search, final SudokuGame board, final int splits) {
+            this.search = search;
+            this.board = board;
+            this.splits = splits;
+        }
+
+        @Override
+        protected void compute() {
+            if (splits < split_depth)
+                split();
+            else
+                search();
+
+            search.check(nodes);
+            search.assignments.add(assignments);
+            search.backtracks.add(backtracks);
+        }
+
+        /**
+         * Fill forced blanks in place, then fork a task per candidate of the next blank.
+         */
+        private void split() {
+            while (!stop()) {
+                int cell = pickMinimum();
+                if (cell < 0) {
+                    search.found(board);
+                    return;
+                }
+
+                long candidates = board.getCandidateMask(cell / size, cell % size);
+                if (candidates == 0)
+                    return;
+
+                if (Long.bitCount(candidates) == 1) {
+                    board.assign(cell / size, cell % size, Long.numberOfTrailingZeros(candidates));
+                    assignments++;
+                    continue;
+                }
+
+                List<Branch> children = new ArrayList<>(Long.bitCount(candidates));
+                for (; candidates != 0; candidates &= candidates - 1) {
+                    SudokuGame child = new SudokuGame(board);
+                    child.assign(cell / size, cell % size, Long.numberOfTrailingZeros(candidates));
+                    assignments++;
+                    children.add(new Branch(search, child, splits + 1));
+                }
+
+                invokeAll(children);
+                return;
+            }
+        }
+
+        /**
+         * @return true if the whole search should wind down.
+         */
+        private boolean search() {
+            if (stop())
+                return true;
+
+            int cell = pickMinimum();
+            if (cell < 0) {
+                search.found(board);
+                return search.done;
+            }
+
+            int row = cell / size;
+            int col = cell % size;
+
+            for (long candidates = board.getCandidateMask(row, col); candidates != 0; candidates &= candidates - 1) {
+                board.assign(row, col, Long.numberOfTrailingZeros(candidates));
+                assignments++;
+
+                if (search())
+                    return true;
+
+                board.unassign(row, col);
+                backtracks++;
+            }
+
+            return false;
+        }
+
+        private boolean stop() {
+            if ((++nodes & (CHECK_INTERVAL - 1)) == 0) {
+                search.check(nodes);
+                nodes = 0;
+            }
+
+            return search.done;
+        }
+
+        /**
+         * @return the blank with the fewest candidates, -1 if the board is full.
+         */
+        private int pickMinimum() {
+            int best = -1;
+            int best_count = Integer.MAX_VALUE;
+
+            for (int i = 0; i < board.getBlankCount(); i++) {
+                int cell = board.getBlankCell(i);
+                int count = Long.bitCount(board.getCandidateMask(cell / size, cell % size));
+
+                if (count < best_count) {
+                    best = cell;
+                    best_count = count;
+                    if (count <= 1)
+                        break;
+                }
+            }
+
+            return best;
+        }
+    }
+}
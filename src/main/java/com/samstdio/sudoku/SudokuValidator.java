@@ -0,0 +1,211 @@
+package com.samstdio.sudoku;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Checks completed grids, and grades submitted grids against expected solutions.
+ *
+ * Numbers are 1 .. size as in the line format of PuzzleFormat, 0 or '.' is a blank.
+ * Unit i's row, column and box are folded into three masks, one bit per number, in the
+ * same pass; a unit of size cells covering all size numbers has no repeat. Nothing is
+ * allocated, so a 9x9 grid takes a few hundred nanoseconds.
+ * Boards up to 49x49 fit the masks.
+ */
+public final class SudokuValidator {
+    // below this many grids gradeAll stays on the calling thread
+    private static final int PARALLEL_THRESHOLD = 1 << 12;
+
+    private SudokuValidator() {
+    }
+
+    /**
+     * @return true if grid is square with square boxes, and every row, column and box holds
+     * each number from 1 to size once.
+     */
+    public static boolean isValid(final int[][] grid) {
+        int size = grid.length;
+        int box = box(size);
+        if (box < 0)
+            return false;
+        for (int[] row : grid)
+            if (row.length != size)
+                return false;
+
+        long full = full(size);
+        for (int i = 0; i < size; i++) {
+            int box_row = i / box * box;
+            int box_col = i % box * box;
+            long row = 0;
+            long col = 0;
+            long sec = 0;
+
+            for (int j = 0; j < size; j++) {
+                row |= bit(grid[i][j], size);
+                col |= bit(grid[j][i], size);
+            }
+            for (int r = box_row; r < box_row + box; r++)
+                for (int c = box_col; c < box_col + box; c++)
+                    sec |= bit(grid[r][c], size);
+
+            if ((row & col & sec) != full)
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @param line one grid in the line format, size * size cells.
+     */
+    public static boolean isValid(final CharSequence line) {
+        int size = (int) Math.sqrt(line.length());
+        int box = box(size);
+        if (box < 0 || size * size != line.length())
+            return false;
+
+        long full = full(size);
+        for (int i = 0; i < size; i++) {
+            int first = i / box * box * size + i % box * box;
+            long row = 0;
+            long col = 0;
+            long sec = 0;
+
+            for (int j = 0; j < size; j++) {
+                row |= bit(cell(line, i * size + j, size), size);
+                col |= bit(cell(line, j * size + i, size), size);
+            }
+            for (int r = first; r < first + box * size; r += size)
+                for (int c = r; c < r + box; c++)
+                    sec |= bit(cell(line, c, size), size);
+
+            if ((row & col & sec) != full)
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @return true if grid is valid and keeps every given of puzzle.
+     */
+    public static boolean isSolutionOf(final CharSequence puzzle, final CharSequence grid) {
+        if (puzzle.length() != grid.length())
+            return false;
+
+        for (int i = 0; i < puzzle.length(); i++) {
+            int given = PuzzleFormat.decode((byte) puzzle.charAt(i));
+            if (given != 0 && given != PuzzleFormat.decode((byte) grid.charAt(i)))
+                return false;
+        }
+
+        return isValid(grid);
+    }
+
+    /**
+     * Grade a submitted grid. expected is trusted to be valid, so a match costs one compare
+     * per cell; the constraints are only checked to tell WRONG from INVALID.
+     * @param submitted the grid as given, in the line format.
+     * @param expected the solution, in the line format.
+     */
+    public static Verdict grade(final CharSequence submitted, final CharSequence expected) {
+        if (submitted.length() != expected.length())
+            return Verdict.INVALID;
+
+        boolean blank = false;
+        boolean differs = false;
+        for (int i = 0; i < submitted.length(); i++) {
+            int num = PuzzleFormat.decode((byte) submitted.charAt(i));
+            if (num < 0)
+                return Verdict.INVALID;
+
+            blank |= num == 0;
+            differs |= num != PuzzleFormat.decode((byte) expected.charAt(i));
+        }
+
+        if (!differs)
+            return Verdict.CORRECT;
+        if (blank)
+            return Verdict.INCOMPLETE;
+
+        return isValid(submitted) ? Verdict.WRONG : Verdict.INVALID;
+    }
+
+    /**
+     * Same as grade for lines, on boards of size x size numbers.
+     */
+    public static Verdict grade(final int[][] submitted, final int[][] expected) {
+        int size = submitted.length;
+        if (expected.length != size)
+            return Verdict.INVALID;
+
+        boolean blank = false;
+        boolean differs = false;
+        for (int row = 0; row < size; row++) {
+            if (submitted[row].length != size || expected[row].length != size)
+                return Verdict.INVALID;
+
+            for (int col = 0; col < size; col++) {
+                int num = submitted[row][col];
+                blank |= num == 0;
+                differs |= num != expected[row][col];
+            }
+        }
+
+        if (!differs)
+            return Verdict.CORRECT;
+        if (blank)
+            return Verdict.INCOMPLETE;
+
+        return isValid(submitted) ? Verdict.WRONG : Verdict.INVALID;
+    }
+
+    /**
+     * Grade submitted.get(i) against expected.get(i) for every i, in parallel for big batches.
+     * @return verdicts in the order of submitted.
+     */
+    public static Verdict[] gradeAll(final List<? extends CharSequence> submitted,
+                                     final List<? extends CharSequence> expected) {
+        if (submitted.size() != expected.size())
+            throw new IllegalArgumentException("expected " + submitted.size() + " solutions but got " + expected.size());
+
+        Verdict[] verdicts = new Verdict[submitted.size()];
+        IntStream indexes = IntStream.range(0, verdicts.length);
+        if (verdicts.length >= PARALLEL_THRESHOLD)
+            indexes = indexes.parallel();
+
+        indexes.forEach(i -> verdicts[i] = grade(submitted.get(i), expected.get(i)));
+
+        return verdicts;
+    }
+
+    /**
+     * @return width of a box for size, -1 if size is not a square or too big for the masks.
+     */
+    private static int box(final int size) {
+        int box = (int) Math.round(Math.sqrt(size));
+
+        return size > 0 && box * box == size && size < Long.SIZE - 1 ? box : -1;
+    }
+
+    /**
+     * @return number at index of line. Up to 9x9 digits are read directly; anything else
+     * falls out of range and counts as no number.
+     */
+    private static int cell(final CharSequence line, final int index, final int size) {
+        char c = line.charAt(index);
+
+        return size <= 9 ? c - '0' : PuzzleFormat.decode((byte) c);
+    }
+
+    private static long full(final int size) {
+        return ((1L << size) - 1) << 1;
+    }
+
+    /**
+     * @return bit of num, 0 if it is a blank or out of range.
+     */
+    private static long bit(final int num, final int size) {
+        return num > 0 && num <= size ? 1L << num : 0;
+    }
+}
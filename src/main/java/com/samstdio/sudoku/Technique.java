@@ -0,0 +1,27 @@
+package com.samstdio.sudoku;
+
+/**
+ * Human solving techniques, each with the difficulty it stands for.
+ */
+public enum Technique {
+    NAKED_SINGLE(Difficulty.EASY),
+    HIDDEN_SINGLE(Difficulty.EASY),
+    NAKED_PAIR(Difficulty.MEDIUM),
+    HIDDEN_PAIR(Difficulty.MEDIUM),
+    POINTING(Difficulty.MEDIUM),
+    BOX_LINE_REDUCTION(Difficulty.MEDIUM),
+    NAKED_TRIPLE(Difficulty.HARD),
+    HIDDEN_TRIPLE(Difficulty.HARD),
+    // no technique applies, a candidate is tried and taken back if it fails
+    GUESS(Difficulty.EXPERT);
+
+    private final Difficulty difficulty;
+
+    Technique(final Difficulty difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+}
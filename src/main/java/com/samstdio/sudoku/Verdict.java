@@ -0,0 +1,15 @@
+package com.samstdio.sudoku;
+
+/**
+ * Grade of a submitted grid.
+ */
+public enum Verdict {
+    // the expected solution
+    CORRECT,
+    // blanks left
+    INCOMPLETE,
+    // a number repeated in a row, column or box, a cell out of range, or the wrong shape
+    INVALID,
+    // every constraint holds, but it is not the expected solution
+    WRONG
+}
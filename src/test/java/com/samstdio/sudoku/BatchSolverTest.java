@@ -0,0 +1,113 @@
+package com.samstdio.sudoku;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for BatchSolver class.
+ *
+ * Puzzles are solved on a worker pool in chunks:
+ * - Results come back in input order, tagged with the input index
+ * - Input boards are left untouched
+ * - Unsolvable puzzles are reported, not dropped
+ */
+class BatchSolverTest {
+
+    private static final int[][] HARD_BOARD = {
+        {0,0,0,0,0,0,0,1,0},
+        {4,0,0,0,0,0,0,0,0},
+        {0,2,0,0,0,0,0,0,0},
+        {0,0,0,0,5,0,4,0,7},
+        {0,0,8,0,0,0,3,0,0},
+        {0,0,1,0,9,0,0,0,0},
+        {3,0,0,4,0,0,2,0,0},
+        {0,5,0,1,0,0,0,0,0},
+        {0,0,0,8,0,6,0,0,0}
+    };
+
+    private static final int[][] HARD_SOLUTION = {
+        {6,9,3,7,8,4,5,1,2},
+        {4,8,7,5,1,2,9,3,6},
+        {1,2,5,9,6,3,8,7,4},
+        {9,3,2,6,5,1,4,8,7},
+        {5,6,8,2,4,7,3,9,1},
+        {7,4,1,3,9,8,6,2,5},
+        {3,1,9,4,7,5,2,6,8},
+        {8,5,6,1,2,9,7,4,3},
+        {2,7,4,8,3,6,1,5,9}
+    };
+
+    @Test
+    @DisplayName("Should return results in input order")
+    void testResultsInOrder() {
+        // every third puzzle cannot be solved
+        List<int[][]> puzzles = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int[][] board = copyBoard(HARD_BOARD);
+            if (i % 3 == 0)
+                board[0][0] = 7;
+            puzzles.add(board);
+        }
+
+        List<BatchSolver.Result> results;
+        try (BatchSolver batch = new BatchSolver(4, 7, 9, 0, SudokuSolverDancingLinks::new)) {
+            results = batch.solveAll(puzzles.stream());
+        }
+
+        assertEquals(puzzles.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            BatchSolver.Result result = results.get(i);
+
+            assertEquals(i, result.getIndex());
+            assertEquals(i % 3 != 0, result.isSolved());
+            if (result.isSolved())
+                assertArrayEquals(HARD_SOLUTION, result.getBoard());
+        }
+
+        // input boards are not modified
+        assertArrayEquals(HARD_BOARD, puzzles.get(1));
+    }
+
+    @Test
+    @DisplayName("Should stream results to a consumer")
+    void testConsumer() {
+        int[] next = {0};
+
+        try (BatchSolver batch = new BatchSolver(2, SudokuSolverBrutalForce::new)) {
+            Stream<int[][]> puzzles = IntStream.range(0, 300).mapToObj(i -> copyBoard(HARD_BOARD));
+
+            batch.solveAll(puzzles, result -> {
+                assertEquals(next[0]++, result.getIndex());
+                assertTrue(result.isSolved());
+            });
+        }
+
+        assertEquals(300, next[0]);
+    }
+
+    @Test
+    @DisplayName("Should handle an empty batch")
+    void testEmpty() {
+        try (BatchSolver batch = new BatchSolver(2, SudokuSolverDancingLinks::new)) {
+            assertTrue(batch.solveAll(Stream.empty()).isEmpty());
+        }
+    }
+
+    /**
+     * Helper method to create a deep copy of the board
+     */
+    private int[][] copyBoard(int[][] original) {
+        int[][] copy = new int[original.length][];
+        for (int i = 0; i < original.length; i++) {
+            copy[i] = original[i].clone();
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,126 @@
+package com.samstdio.sudoku;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for PuzzleGenerator class.
+ *
+ * Puzzles are cut from random full grids:
+ * - Every puzzle has exactly one solution, the grid it was cut from
+ * - The difficulty is the hardest human technique the puzzle needs
+ * - A seed and an index always give the same puzzle
+ */
+class PuzzleGeneratorTest {
+
+    private static final int[][] EASY_BOARD = {
+        {4,2,0,5,0,0,0,7,0},
+        {0,0,0,4,6,0,1,0,5},
+        {0,6,0,9,1,0,0,3,0},
+        {6,0,2,0,8,0,4,5,0},
+        {7,0,5,2,0,0,9,6,0},
+        {9,4,0,7,0,0,0,0,0},
+        {0,5,0,0,7,0,3,0,0},
+        {3,0,0,6,0,1,0,8,2},
+        {0,0,9,0,0,0,0,0,0}
+    };
+
+    private static final int[][] HARD_BOARD = {
+        {0,0,0,0,0,0,0,1,0},
+        {4,0,0,0,0,0,0,0,0},
+        {0,2,0,0,0,0,0,0,0},
+        {0,0,0,0,5,0,4,0,7},
+        {0,0,8,0,0,0,3,0,0},
+        {0,0,1,0,9,0,0,0,0},
+        {3,0,0,4,0,0,2,0,0},
+        {0,5,0,1,0,0,0,0,0},
+        {0,0,0,8,0,6,0,0,0}
+    };
+
+    @Test
+    @DisplayName("Should generate unique puzzles cut from their solution")
+    void testUniquePuzzles() {
+        List<PuzzleGenerator.Puzzle> puzzles = new PuzzleGenerator(1).generateAll(20, null)
+                .collect(Collectors.toList());
+
+        assertEquals(20, puzzles.size());
+
+        for (int i = 0; i < puzzles.size(); i++) {
+            PuzzleGenerator.Puzzle puzzle = puzzles.get(i);
+            int[][] board = puzzle.getBoard();
+            int[][] solution = puzzle.getSolution();
+
+            assertEquals(i, puzzle.getIndex());
+            for (int row = 0; row < 9; row++)
+                for (int col = 0; col < 9; col++)
+                    assertTrue(board[row][col] == 0 || board[row][col] == solution[row][col]);
+
+            SudokuGame game = new SudokuGame(board, null, 9, 0);
+            SudokuSolverDancingLinks solver = new SudokuSolverDancingLinks(game);
+
+            assertEquals(SolutionCount.UNIQUE, solver.countSolutions());
+            assertTrue(solver.solve());
+            assertArrayEquals(solution, game.getBoard());
+            assertEquals(puzzle.getDifficulty(), PuzzleGenerator.grade(board));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reproduce puzzles from the seed")
+    void testReproducible() {
+        PuzzleGenerator.Puzzle first = new PuzzleGenerator(42).generate(7, null);
+        PuzzleGenerator.Puzzle again = new PuzzleGenerator(42).generate(7, null);
+        PuzzleGenerator.Puzzle other = new PuzzleGenerator(42).generate(8, null);
+
+        assertArrayEquals(first.getBoard(), again.getBoard());
+        assertArrayEquals(first.getSolution(), again.getSolution());
+        assertFalse(Arrays.deepEquals(first.getBoard(), other.getBoard()));
+    }
+
+    @Test
+    @DisplayName("Should hit the target difficulty")
+    void testTargetDifficulty() {
+        PuzzleGenerator generator = new PuzzleGenerator(5);
+
+        for (Difficulty target : new Difficulty[] {Difficulty.EASY, Difficulty.MEDIUM, Difficulty.EXPERT}) {
+            for (int i = 0; i < 3; i++) {
+                PuzzleGenerator.Puzzle puzzle = generator.generate(i, target);
+
+                assertEquals(target, puzzle.getDifficulty());
+                assertEquals(target, PuzzleGenerator.grade(puzzle.getBoard()));
+                assertEquals(SolutionCount.UNIQUE,
+                        new SudokuSolverDancingLinks(new SudokuGame(puzzle.getBoard(), null, 9, 0)).countSolutions());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should grade by the hardest technique needed")
+    void testGrade() {
+        assertEquals(Difficulty.EASY, PuzzleGenerator.grade(EASY_BOARD));
+        // many solutions, deduction cannot pick one
+        assertEquals(Difficulty.EXPERT, PuzzleGenerator.grade(new int[9][9]));
+
+        // grading solves a copy
+        PuzzleGenerator.grade(HARD_BOARD);
+        assertEquals(0, HARD_BOARD[0][0]);
+    }
+
+    @Test
+    @DisplayName("Should generate boards of other sizes")
+    void testOtherSizes() {
+        PuzzleGenerator.Puzzle puzzle = new PuzzleGenerator(3, 4).generate(0, null);
+
+        assertEquals(4, puzzle.getBoard().length);
+        assertEquals(SolutionCount.UNIQUE,
+                new SudokuSolverDancingLinks(new SudokuGame(puzzle.getBoard(), null, 4, 0)).countSolutions());
+
+        assertThrows(IllegalArgumentException.class, () -> new PuzzleGenerator(3, 10));
+    }
+}
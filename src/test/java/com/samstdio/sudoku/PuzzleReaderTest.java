@@ -0,0 +1,143 @@
+package com.samstdio.sudoku;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for PuzzleReader and PuzzleWriter classes.
+ *
+ * Puzzles are stored one per line, 81 characters each:
+ * - '.' or '0' is a blank, digits are themselves
+ * - Empty lines and '#' comments are skipped
+ * - Windows line endings are accepted
+ */
+class PuzzleReaderTest {
+
+    private static final String EASY =
+        "420500070000460105060910030602080450705200960940700000050070300300601082009000000";
+    private static final String MINIMAL =
+        "000000010400000000020000000000050407008000300001090000300400200050100000000806000";
+    private static final String MINIMAL_SOLVED =
+        "693784512487512936125963874932651487568247391741398625319475268856129743274836159";
+
+    private Path input;
+    private Path output;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        input = Files.createTempFile("puzzles", ".txt");
+        output = Files.createTempFile("solutions", ".txt");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+    }
+
+    @Test
+    @DisplayName("Should read puzzles and skip comments and empty lines")
+    void testRead() throws IOException {
+        String dotted = MINIMAL.replace('0', '.');
+        write("# two puzzles\n" + EASY + "\r\n\n" + dotted);
+
+        try (PuzzleReader reader = new PuzzleReader(input)) {
+            int[][] board = new int[9][9];
+
+            assertTrue(reader.next(board));
+            assertEquals(4, board[0][0]);
+            assertEquals(0, board[0][2]);
+            assertEquals(2, board[7][8]);
+
+            assertTrue(reader.next(board));
+            assertEquals(0, board[0][0]);
+            assertEquals(1, board[0][7]);
+            assertEquals(6, board[8][5]);
+
+            assertFalse(reader.next(board));
+        }
+    }
+
+    @Test
+    @DisplayName("Should read lines across mapping windows")
+    void testSmallWindow() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 50; i++)
+            text.append(i % 2 == 0 ? EASY : MINIMAL).append('\n');
+        write(text.toString());
+
+        // windows smaller than two lines force a remap in the middle of most lines
+        try (PuzzleReader reader = new PuzzleReader(input, 9, 100)) {
+            List<int[][]> boards = reader.boards().collect(Collectors.toList());
+
+            assertEquals(50, boards.size());
+            assertEquals(4, boards.get(48)[0][0]);
+            assertEquals(1, boards.get(49)[0][7]);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a short line")
+    void testShortLine() throws IOException {
+        write(EASY.substring(0, 80) + "\n");
+
+        try (PuzzleReader reader = new PuzzleReader(input)) {
+            assertThrows(IllegalArgumentException.class, () -> reader.next(new int[9][9]));
+        }
+    }
+
+    @Test
+    @DisplayName("Should write solved boards one per line")
+    void testWrite() throws IOException {
+        try (PuzzleReader reader = new PuzzleReader(writeAndReturn(MINIMAL + "\n" + MINIMAL + "\n"));
+             PuzzleWriter writer = new PuzzleWriter(output)) {
+            int[][] board = new int[9][9];
+
+            while (reader.next(board)) {
+                SudokuGame game = new SudokuGame(board, null, 9, 0);
+                assertTrue(new SudokuSolverDancingLinks(game).solve());
+                writer.write(game);
+            }
+        }
+
+        List<String> lines = Files.readAllLines(output, StandardCharsets.US_ASCII);
+        assertEquals(2, lines.size());
+        assertEquals(MINIMAL_SOLVED, lines.get(0));
+        assertEquals(MINIMAL_SOLVED, lines.get(1));
+    }
+
+    @Test
+    @DisplayName("Should write blanks as dots")
+    void testWriteBlanks() throws IOException {
+        try (PuzzleWriter writer = new PuzzleWriter(output)) {
+            int[][] board = new int[9][9];
+            board[0][0] = 5;
+            writer.write(board);
+        }
+
+        String line = Files.readAllLines(output, StandardCharsets.US_ASCII).get(0);
+        assertEquals(81, line.length());
+        assertEquals('5', line.charAt(0));
+        assertEquals('.', line.charAt(80));
+    }
+
+    private void write(String text) throws IOException {
+        Files.write(input, text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Path writeAndReturn(String text) throws IOException {
+        write(text);
+        return input;
+    }
+}
@@ -0,0 +1,152 @@
+package com.samstdio.sudoku;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for solve budgets and cancellation.
+ *
+ * A solve gives up instead of running on:
+ * - BUDGET_EXCEEDED once its nodes or time run out
+ * - CANCELLED after cancel() or when its thread is interrupted
+ * - Search solvers leave the board as it was when they give up
+ */
+class SolveBudgetTest {
+
+    private static final int[][] HARD_BOARD = {
+        {0,0,0,0,0,0,0,1,0},
+        {4,0,0,0,0,0,0,0,0},
+        {0,2,0,0,0,0,0,0,0},
+        {0,0,0,0,5,0,4,0,7},
+        {0,0,8,0,0,0,3,0,0},
+        {0,0,1,0,9,0,0,0,0},
+        {3,0,0,4,0,0,2,0,0},
+        {0,5,0,1,0,0,0,0,0},
+        {0,0,0,8,0,6,0,0,0}
+    };
+
+    // no solution, takes the sequential search millions of nodes to find out
+    private static final int[][] UNSOLVABLE_BOARD = {
+        {7,0,0,0,0,0,0,1,0},
+        {4,0,0,0,0,0,0,0,0},
+        {0,2,0,0,0,0,0,0,0},
+        {0,0,0,0,5,0,4,0,7},
+        {0,0,8,0,0,0,3,0,0},
+        {0,0,1,0,9,0,0,0,0},
+        {3,0,0,4,0,0,2,0,0},
+        {0,5,0,1,0,0,0,0,0},
+        {0,0,0,8,0,6,0,0,0}
+    };
+
+    @Test
+    @DisplayName("Should give up once the node budget runs out")
+    void testNodeBudget() {
+        SudokuGame game = new SudokuGame(HARD_BOARD, null, 9, 0);
+        SudokuSolver[] solvers = {
+            new SudokuSolverBrutalForce(game),
+            new SudokuSolverBrutalForce(game, SearchOrder.SEQUENTIAL),
+            new SudokuSolverDancingLinks(game)
+        };
+
+        for (SudokuSolver solver : solvers) {
+            assertEquals(SolveResult.BUDGET_EXCEEDED, solver.solve(SolveBudget.ofNodes(10)));
+            assertEquals(11, solver.getStats().getNodes());
+            assertEquals(0, solver.getStats().getSolved());
+            assertArrayEquals(HARD_BOARD, game.getBoard());
+        }
+
+        // the same solver finishes with room to spare
+        SudokuSolver solver = new SudokuSolverDancingLinks(game);
+        assertEquals(SolveResult.BUDGET_EXCEEDED, solver.solve(SolveBudget.ofNodes(1)));
+        assertEquals(SolveResult.SOLVED, solver.solve(SolveBudget.ofNodes(100_000)));
+        assertTrue(game.solved());
+    }
+
+    @Test
+    @DisplayName("Should give up once the time budget runs out")
+    void testTimeout() {
+        SudokuGame game = new SudokuGame(UNSOLVABLE_BOARD, null, 9, 0);
+        SudokuSolver solver = new SudokuSolverBrutalForce(game, SearchOrder.SEQUENTIAL);
+
+        assertEquals(SolveResult.BUDGET_EXCEEDED, solver.solve(SolveBudget.ofTimeout(Duration.ofMillis(20))));
+        assertArrayEquals(UNSOLVABLE_BOARD, game.getBoard());
+    }
+
+    @Test
+    @DisplayName("Should tell an unsolvable board from one out of budget")
+    void testUnsolvable() {
+        SudokuSolver solver = new SudokuSolverDancingLinks(new SudokuGame(UNSOLVABLE_BOARD, null, 9, 0));
+        assertEquals(SolveResult.UNSOLVABLE, solver.solve(SolveBudget.ofNodes(1_000_000)));
+
+        assertEquals(SolveResult.UNSOLVABLE,
+                new SudokuSolverHuman(new SudokuGame(UNSOLVABLE_BOARD, null, 9, 0)).solve(SolveBudget.UNLIMITED));
+
+        // many solutions, deduction alone gets stuck
+        SudokuSolver human = new SudokuSolverHuman(new SudokuGame(new int[9][9], null, 9, 0),
+                DeductionPipeline.standard());
+        assertEquals(SolveResult.UNSOLVABLE, human.solve(SolveBudget.UNLIMITED));
+        assertEquals(SolveResult.BUDGET_EXCEEDED,
+                new SudokuSolverHuman(new SudokuGame(HARD_BOARD, null, 9, 0)).solve(SolveBudget.ofNodes(5)));
+    }
+
+    @Test
+    @DisplayName("Should stop a running solve cancelled from another thread")
+    void testCancel() throws InterruptedException {
+        SudokuGame game = new SudokuGame(UNSOLVABLE_BOARD, null, 9, 0);
+        SudokuSolver solver = new SudokuSolverBrutalForce(game, SearchOrder.SEQUENTIAL);
+        AtomicReference<SolveResult> result = new AtomicReference<>();
+
+        Thread thread = new Thread(() -> result.set(solver.solve(SolveBudget.UNLIMITED)));
+        thread.start();
+        Thread.sleep(20);
+        solver.cancel();
+        thread.join(10_000);
+
+        assertFalse(thread.isAlive());
+        assertEquals(SolveResult.CANCELLED, result.get());
+        assertArrayEquals(UNSOLVABLE_BOARD, game.getBoard());
+
+        // cancel sticks to the solver
+        assertEquals(SolveResult.CANCELLED, solver.solve(SolveBudget.UNLIMITED));
+
+        SudokuSolverDancingLinks counter = new SudokuSolverDancingLinks(new SudokuGame(HARD_BOARD, null, 9, 0));
+        counter.cancel();
+        assertThrows(CancellationException.class, counter::countSolutions);
+    }
+
+    @Test
+    @DisplayName("Should stop when the solving thread is interrupted")
+    void testInterrupt() {
+        SudokuSolver solver = new SudokuSolverBrutalForce(new SudokuGame(UNSOLVABLE_BOARD, null, 9, 0),
+                SearchOrder.SEQUENTIAL);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertEquals(SolveResult.CANCELLED, solver.solve(SolveBudget.UNLIMITED));
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    @DisplayName("Batch should report puzzles out of budget and go on")
+    void testBatchBudget() {
+        List<BatchSolver.Result> results;
+        try (BatchSolver batch = new BatchSolver(2, 1, 9, 0, SolveBudget.ofTimeout(Duration.ofMillis(20)),
+                game -> new SudokuSolverBrutalForce(game, SearchOrder.SEQUENTIAL))) {
+            results = batch.solveAll(Stream.of(UNSOLVABLE_BOARD, HARD_BOARD, UNSOLVABLE_BOARD));
+        }
+
+        assertEquals(SolveResult.BUDGET_EXCEEDED, results.get(0).getResult());
+        assertEquals(SolveResult.BUDGET_EXCEEDED, results.get(2).getResult());
+        assertFalse(results.get(0).isSolved());
+    }
+}
@@ -0,0 +1,222 @@
+package com.samstdio.sudoku;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for SolveCache and SudokuSolverCached.
+ *
+ * Puzzles solved once are filled from the cache:
+ * - Relabeled and transposed copies of a puzzle hit too
+ * - The stored solution is mapped back onto the puzzle as asked
+ * - Boards without a solution are remembered, solves that gave up are not
+ * - Full stripes drop the least recently used, or the oldest, puzzle
+ */
+class SolveCacheTest {
+
+    private static final int[][] HARD_BOARD = {
+        {0,0,0,0,0,0,0,1,0},
+        {4,0,0,0,0,0,0,0,0},
+        {0,2,0,0,0,0,0,0,0},
+        {0,0,0,0,5,0,4,0,7},
+        {0,0,8,0,0,0,3,0,0},
+        {0,0,1,0,9,0,0,0,0},
+        {3,0,0,4,0,0,2,0,0},
+        {0,5,0,1,0,0,0,0,0},
+        {0,0,0,8,0,6,0,0,0}
+    };
+
+    private static final int[][] EASY_BOARD = {
+        {4,2,0,5,0,0,0,7,0},
+        {0,0,0,4,6,0,1,0,5},
+        {0,6,0,9,1,0,0,3,0},
+        {6,0,2,0,8,0,4,5,0},
+        {7,0,5,2,0,0,9,6,0},
+        {9,4,0,7,0,0,0,0,0},
+        {0,5,0,0,7,0,3,0,0},
+        {3,0,0,6,0,1,0,8,2},
+        {0,0,9,0,0,0,0,0,0}
+    };
+
+    @Test
+    @DisplayName("Should fill a repeated puzzle from the cache")
+    void testRepeat() {
+        SolveCache cache = new SolveCache(100);
+
+        SudokuGame expected = new SudokuGame(HARD_BOARD, null, 9, 0);
+        assertTrue(new SudokuSolverDancingLinks(expected).solve());
+
+        for (int i = 0; i < 3; i++) {
+            SudokuGame game = new SudokuGame(HARD_BOARD, null, 9, 0);
+            SudokuSolver solver = new SudokuSolverCached(game, cache, SudokuSolverDancingLinks::new);
+
+            assertEquals(SolveResult.SOLVED, solver.solve(SolveBudget.UNLIMITED));
+            assertArrayEquals(expected.getBoard(), game.getBoard());
+            assertEquals(64, solver.getStats().getAssignments() - solver.getStats().getBacktracks());
+        }
+
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.size());
+        // a hit does not search
+        assertTrue(new SudokuSolverCached(new SudokuGame(HARD_BOARD, null, 9, 0), cache,
+                game -> { throw new AssertionError("solved again"); }).solve());
+    }
+
+    @Test
+    @DisplayName("Should share the solution with relabeled and transposed copies")
+    void testSymmetries() {
+        SolveCache cache = new SolveCache(100);
+        int[] relabel = {0, 9, 3, 1, 7, 2, 8, 4, 6, 5};
+
+        int[][] relabeled = new int[9][9];
+        int[][] transposed = new int[9][9];
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                relabeled[row][col] = relabel[HARD_BOARD[row][col]];
+                transposed[col][row] = relabeled[row][col];
+            }
+        }
+
+        assertTrue(new SudokuSolverCached(new SudokuGame(HARD_BOARD, null, 9, 0), cache,
+                SudokuSolverDancingLinks::new).solve());
+
+        for (int[][] board : new int[][][] {relabeled, transposed}) {
+            SudokuGame game = new SudokuGame(board, null, 9, 0);
+            assertTrue(new SudokuSolverCached(game, cache, SudokuSolverDancingLinks::new).solve());
+            assertSolves(board, game);
+        }
+
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    @DisplayName("Should map solutions back through line permutations")
+    void testPermutations() {
+        SolveCache cache = new SolveCache(100);
+        // swap the first two bands, then two rows and two columns inside them
+        int[] rows = {4, 3, 5, 0, 1, 2, 6, 7, 8};
+        int[] cols = {0, 2, 1, 3, 4, 5, 8, 7, 6};
+
+        int[][] permuted = new int[9][9];
+        for (int row = 0; row < 9; row++)
+            for (int col = 0; col < 9; col++)
+                permuted[row][col] = EASY_BOARD[rows[row]][cols[col]];
+
+        assertTrue(new SudokuSolverCached(new SudokuGame(EASY_BOARD, null, 9, 0), cache,
+                SudokuSolverHuman::new).solve());
+
+        SudokuGame game = new SudokuGame(permuted, null, 9, 0);
+        assertTrue(new SudokuSolverCached(game, cache, SudokuSolverHuman::new).solve());
+        assertSolves(permuted, game);
+    }
+
+    @Test
+    @DisplayName("Should remember unsolvable boards but not solves that gave up")
+    void testUnsolvable() {
+        SolveCache cache = new SolveCache(100);
+        int[][] unsolvable = new int[9][9];
+        for (int row = 0; row < 9; row++)
+            unsolvable[row] = HARD_BOARD[row].clone();
+        unsolvable[0][0] = 7;
+
+        for (int i = 0; i < 2; i++) {
+            SudokuSolver solver = new SudokuSolverCached(new SudokuGame(unsolvable, null, 9, 0), cache,
+                    SudokuSolverDancingLinks::new);
+            assertEquals(SolveResult.UNSOLVABLE, solver.solve(SolveBudget.UNLIMITED));
+        }
+        assertEquals(1, cache.getHits());
+
+        SudokuSolver solver = new SudokuSolverCached(new SudokuGame(HARD_BOARD, null, 9, 0), cache,
+                SudokuSolverDancingLinks::new);
+        assertEquals(SolveResult.BUDGET_EXCEEDED, solver.solve(SolveBudget.ofNodes(1)));
+        assertEquals(1, cache.size());
+
+        solver.cancel();
+        assertEquals(SolveResult.CANCELLED, solver.solve(SolveBudget.UNLIMITED));
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used or the oldest puzzle")
+    void testEviction() {
+        int[][][] boards = {HARD_BOARD, EASY_BOARD, new int[9][9]};
+
+        for (SolveCache.Eviction eviction : SolveCache.Eviction.values()) {
+            SolveCache cache = new SolveCache(2, 1, eviction);
+
+            solve(cache, boards[0]);
+            solve(cache, boards[1]);
+            // look the first one up again
+            solve(cache, boards[0]);
+            solve(cache, boards[2]);
+
+            assertEquals(2, cache.size());
+            assertEquals(1, cache.getEvictions());
+
+            long hits = cache.getHits();
+            solve(cache, boards[eviction == SolveCache.Eviction.LRU ? 0 : 1]);
+            assertEquals(hits + 1, cache.getHits());
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new SolveCache(0));
+    }
+
+    @Test
+    @DisplayName("Should be shared by solvers on many threads")
+    void testConcurrent() {
+        SolveCache cache = new SolveCache(16, 4, SolveCache.Eviction.LRU);
+        int puzzles = 200;
+
+        List<BatchSolver.Result> results;
+        try (BatchSolver batch = new BatchSolver(4, 3, 9, 0,
+                game -> new SudokuSolverCached(game, cache, SudokuSolverDancingLinks::new))) {
+            Stream<int[][]> input = IntStream.range(0, puzzles)
+                    .mapToObj(i -> i % 2 == 0 ? HARD_BOARD : EASY_BOARD);
+            results = batch.solveAll(input);
+        }
+
+        for (BatchSolver.Result result : results)
+            assertTrue(result.isSolved());
+        assertEquals(puzzles, cache.getHits() + cache.getMisses());
+        assertTrue(cache.getHits() >= puzzles - 8);
+
+        // other sizes keep their own keys
+        int[][] small = {{1,0,0,0},{0,0,3,0},{0,4,0,0},{0,0,0,2}};
+        SudokuGame game = new SudokuGame(small, null, 4, 0);
+        assertTrue(new SudokuSolverCached(game, cache, SudokuSolverDancingLinks::new).solve());
+        assertSolves(small, game);
+    }
+
+    private static void solve(SolveCache cache, int[][] board) {
+        new SudokuSolverCached(new SudokuGame(board, null, 9, 0), cache, SudokuSolverDancingLinks::new).solve();
+    }
+
+    private static void assertSolves(int[][] board, SudokuGame game) {
+        int size = board.length;
+        int[][] solved = game.getBoard();
+
+        assertTrue(game.solved());
+        for (int row = 0; row < size; row++)
+            for (int col = 0; col < size; col++)
+                assertTrue(board[row][col] == 0 || board[row][col] == solved[row][col]);
+
+        // every number once per row and column; assign already keeps sections apart
+        for (int i = 0; i < size; i++) {
+            long row_mask = 0;
+            long col_mask = 0;
+            for (int j = 0; j < size; j++) {
+                row_mask |= 1L << solved[i][j];
+                col_mask |= 1L << solved[j][i];
+            }
+            assertEquals(size, Long.bitCount(row_mask));
+            assertEquals(size, Long.bitCount(col_mask));
+        }
+    }
+}
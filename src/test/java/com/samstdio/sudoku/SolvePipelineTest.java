@@ -0,0 +1,171 @@
+package com.samstdio.sudoku;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for SolvePipeline and FlowStage.
+ *
+ * Puzzle lines flow through parse, propagate, search and serialize stages:
+ * - Every line comes out once, tagged with its input index
+ * - Lines that are not puzzles come out with the reason instead of a board
+ * - A fast source is held back by a slow subscriber instead of filling memory
+ * - Closing the pipeline fails the subscriber
+ */
+class SolvePipelineTest {
+
+    private static final String EASY =
+            "420500070000460105060910030602080450705200960940700000050070300300601082009000000";
+    private static final String EASY_SOLUTION =
+            "421538679893467125567912834632189457715243968948756213256874391374691582189325746";
+    private static final String HARD =
+            "000000010400000000020000000000050407008000300001090000300400200050100000000806000";
+    private static final String UNSOLVABLE =
+            "700000010400000000020000000000050407008000300001090000300400200050100000000806000";
+
+    @Test
+    @DisplayName("Should solve every line once, tagged with its index")
+    void testSolve() throws Exception {
+        String[] lines = {EASY, HARD, UNSOLVABLE, "12345", "x" + EASY.substring(1), "1...2...3...4..."};
+        Map<Long, SolvePipeline.Line> out = new ConcurrentHashMap<>();
+
+        try (SolvePipeline pipeline = new SolvePipeline(2, 4, SolveBudget.UNLIMITED, SudokuSolverDancingLinks::new);
+             SubmissionPublisher<String> source = new SubmissionPublisher<>()) {
+            Collector collector = new Collector(Long.MAX_VALUE, line -> out.put(line.getIndex(), line));
+            source.subscribe(pipeline);
+            pipeline.subscribe(collector);
+
+            for (String line : lines)
+                source.submit(line);
+            source.close();
+
+            collector.done.get(30, TimeUnit.SECONDS);
+        }
+
+        assertEquals(lines.length, out.size());
+        assertEquals(EASY_SOLUTION, out.get(0L).getText());
+        assertTrue(out.get(0L).isSolved());
+        assertTrue(out.get(1L).isSolved());
+        assertFalse(out.get(1L).getText().contains("."));
+        assertEquals(SolveResult.UNSOLVABLE, out.get(2L).getResult());
+        assertNull(out.get(3L).getResult());
+        assertTrue(out.get(3L).getText().contains("square"));
+        assertNull(out.get(4L).getResult());
+        assertTrue(out.get(5L).isSolved());
+        assertTrue(out.get(5L).getText().startsWith("1"));
+    }
+
+    @Test
+    @DisplayName("Should hold a fast source back while the subscriber is slow")
+    void testBackpressure() throws Exception {
+        int puzzles = 2000;
+        AtomicLong received = new AtomicLong();
+        long max_ahead = 0;
+
+        try (SolvePipeline pipeline = new SolvePipeline(2, 4, SolveBudget.UNLIMITED, SudokuSolverDancingLinks::new);
+             SubmissionPublisher<String> source = new SubmissionPublisher<>(Runnable::run, 8)) {
+            // one line at a time, slowly at first
+            Collector collector = new Collector(1, line -> {
+                assertTrue(line.isSolved() || line.getResult() == SolveResult.UNSOLVABLE);
+                if (received.incrementAndGet() < 100)
+                    sleep();
+            });
+            source.subscribe(pipeline);
+            pipeline.subscribe(collector);
+
+            for (long i = 0; i < puzzles; i++) {
+                source.submit(i % 2 == 0 ? EASY : UNSOLVABLE);
+                max_ahead = Math.max(max_ahead, i + 1 - received.get());
+            }
+            source.close();
+
+            collector.done.get(60, TimeUnit.SECONDS);
+        }
+
+        assertEquals(puzzles, received.get());
+        // the source buffer, plus what four stages may hold
+        assertTrue(max_ahead <= 8 + 4 * 2 * 4 + 8, "ran ahead by " + max_ahead);
+    }
+
+    @Test
+    @DisplayName("Should fail the subscriber once closed")
+    void testClose() throws Exception {
+        SolvePipeline pipeline = new SolvePipeline(1, 2, SolveBudget.UNLIMITED, SudokuSolverDancingLinks::new);
+        Collector collector = new Collector(Long.MAX_VALUE, line -> { });
+        pipeline.subscribe(collector);
+
+        pipeline.close();
+
+        // a future failed with a CancellationException throws it as it is
+        assertThrows(CancellationException.class, () -> collector.done.get(30, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SolvePipeline(0, 2, SolveBudget.UNLIMITED, SudokuSolverDancingLinks::new));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Requests batch lines at a time and completes done at the end.
+     */
+    private static final class Collector implements Flow.Subscriber<SolvePipeline.Line> {
+        private final long batch;
+        private final Consumer<SolvePipeline.Line> consumer;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+        private long left;
+
+        Collector(long batch, Consumer<SolvePipeline.Line> consumer) {
+            this.batch = batch;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            left = batch;
+            subscription.request(batch);
+        }
+
+        @Override
+        public void onNext(SolvePipeline.Line line) {
+            try {
+                consumer.accept(line);
+            } catch (Throwable e) {
+                done.completeExceptionally(e);
+            }
+
+            if (--left == 0) {
+                left = batch;
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            done.complete(null);
+        }
+    }
+}
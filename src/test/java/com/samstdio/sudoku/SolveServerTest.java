@@ -0,0 +1,168 @@
+package com.samstdio.sudoku;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for SolveServer and LatencyHistogram.
+ *
+ * The server answers puzzle lines over TCP:
+ * - One reply line per puzzle, in request order, for single lines and batches
+ * - Bad lines get ERR and the connection goes on
+ * - A full worker queue slows the client down instead of dropping puzzles
+ * - STATS reports latency percentiles
+ */
+class SolveServerTest {
+
+    private static final String EASY =
+            "420500070000460105060910030602080450705200960940700000050070300300601082009000000";
+    private static final String EASY_SOLUTION =
+            "421538679893467125567912834632189457715243968948756213256874391374691582189325746";
+    private static final String HARD =
+            "000000010400000000020000000000050407008000300001090000300400200050100000000806000";
+    private static final String UNSOLVABLE =
+            "700000010400000000020000000000050407008000300001090000300400200050100000000806000";
+
+    @Test
+    @DisplayName("Should answer single puzzles in order")
+    void testSingle() throws IOException {
+        try (SolveServer server = new SolveServer(0, 2, 4, SolveBudget.UNLIMITED, SudokuSolverDancingLinks::new);
+             Client client = new Client(server.getPort())) {
+
+            client.send(EASY + "\n" + UNSOLVABLE + "\n\n" + EASY + "\r\n");
+
+            assertEquals("SOLVED " + EASY_SOLUTION, client.receive());
+            assertEquals("UNSOLVABLE", client.receive());
+            assertEquals("SOLVED " + EASY_SOLUTION, client.receive());
+
+            client.send("1234\n" + EASY.substring(1) + "\n" + "x" + EASY.substring(1) + "\n");
+            assertTrue(client.receive().startsWith("ERR"));
+            assertTrue(client.receive().startsWith("ERR"));
+            assertTrue(client.receive().startsWith("ERR"));
+
+            // a 4x4 board
+            client.send("1...2...3...4...\n");
+            assertTrue(client.receive().startsWith("SOLVED 1"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should solve a batch and reply per puzzle")
+    void testBatch() throws IOException {
+        try (SolveServer server = new SolveServer(0, 2, 4, SolveBudget.UNLIMITED, SudokuSolverHuman::new);
+             Client client = new Client(server.getPort())) {
+
+            // the batch arrives in pieces
+            client.send("BATCH 3\n" + EASY + "\n" + HARD.substring(0, 40));
+            client.send(HARD.substring(40) + "\n" + UNSOLVABLE + "\nBATCH x\n");
+
+            assertEquals("SOLVED " + EASY_SOLUTION, client.receive());
+            String hard = client.receive();
+            assertTrue(hard.startsWith("SOLVED "));
+            assertFalse(hard.contains("."));
+            assertEquals("UNSOLVABLE", client.receive());
+            assertTrue(client.receive().startsWith("ERR"));
+
+            // cut short by the client
+            client.send("BATCH 2\n" + EASY + "\n");
+            client.socket.shutdownOutput();
+            assertTrue(client.receive().startsWith("ERR"));
+            assertNull(client.receive());
+        }
+    }
+
+    @Test
+    @DisplayName("Should hold a fast client back while the workers catch up")
+    void testBackpressure() throws IOException {
+        int puzzles = 3000;
+
+        try (SolveServer server = new SolveServer(0, 1, 1, SolveBudget.UNLIMITED, SudokuSolverDancingLinks::new);
+             Client client = new Client(server.getPort())) {
+
+            Thread writer = new Thread(() -> {
+                StringBuilder lines = new StringBuilder();
+                for (int i = 0; i < puzzles; i++)
+                    lines.append(i % 2 == 0 ? EASY : UNSOLVABLE).append('\n');
+                lines.append("STATS\n");
+                try {
+                    client.send(lines.toString());
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            writer.start();
+
+            for (int i = 0; i < puzzles; i++)
+                assertEquals(i % 2 == 0 ? "SOLVED " + EASY_SOLUTION : "UNSOLVABLE", client.receive());
+
+            String stats = client.receive();
+            assertTrue(stats.startsWith("STATS count="));
+            assertTrue(stats.contains("p99="));
+            assertEquals(puzzles, server.getLatencies().getCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Histogram percentiles should be within a bucket of the truth")
+    void testHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+
+        for (long i = 1; i <= 1000; i++)
+            histogram.record(i * 1000);
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500_500, histogram.getMean());
+        for (double p : new double[] {1, 50, 90, 99, 100}) {
+            long truth = (long) (p * 10) * 1000;
+            long value = histogram.getPercentile(p);
+            assertTrue(value >= truth && value <= truth * 9 / 8 + 1, p + " : " + value);
+        }
+
+        histogram.record(3);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(3, histogram.getPercentile(0));
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(101));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+    }
+
+    private static final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final OutputStream out;
+        private final BufferedReader in;
+
+        Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setSoTimeout(30_000);
+            out = socket.getOutputStream();
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        }
+
+        void send(String text) throws IOException {
+            out.write(text.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        String receive() throws IOException {
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.samstdio.sudoku;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for SolveStats and SolverMetrics.
+ *
+ * Every solver counts its last solve:
+ * - Assignments left standing once solved are exactly the blanks
+ * - The human solver counts progress per technique
+ * - SolverMetrics sums the solves of any number of solvers and threads
+ */
+class SolverMetricsTest {
+
+    private static final int[][] EASY_BOARD = {
+        {4,2,0,5,0,0,0,7,0},
+        {0,0,0,4,6,0,1,0,5},
+        {0,6,0,9,1,0,0,3,0},
+        {6,0,2,0,8,0,4,5,0},
+        {7,0,5,2,0,0,9,6,0},
+        {9,4,0,7,0,0,0,0,0},
+        {0,5,0,0,7,0,3,0,0},
+        {3,0,0,6,0,1,0,8,2},
+        {0,0,9,0,0,0,0,0,0}
+    };
+
+    private static final int BLANKS = 47;
+
+    @Test
+    @DisplayName("Every solver should count its solve")
+    void testSolverStats() {
+        SudokuSolver[] solvers = {
+            new SudokuSolverBrutalForce(new SudokuGame(EASY_BOARD, null, 9, 0)),
+            new SudokuSolverBrutalForce(new SudokuGame(EASY_BOARD, null, 9, 0), SearchOrder.SEQUENTIAL),
+            new SudokuSolverHuman(new SudokuGame(EASY_BOARD, null, 9, 0)),
+            new SudokuSolverDancingLinks(new SudokuGame(EASY_BOARD, null, 9, 0))
+        };
+
+        for (SudokuSolver solver : solvers) {
+            assertTrue(solver.solve());
+
+            SolveStats stats = solver.getStats();
+            assertEquals(1, stats.getSolves());
+            assertEquals(1, stats.getSolved());
+            assertTrue(stats.getNodes() > 0);
+            assertTrue(stats.getNanos() > 0);
+            assertEquals(BLANKS, stats.getAssignments() - stats.getBacktracks());
+        }
+    }
+
+    @Test
+    @DisplayName("Human solver should count techniques")
+    void testTechniqueCounts() {
+        SudokuSolverHuman solver = new SudokuSolverHuman(new SudokuGame(EASY_BOARD, null, 9, 0));
+
+        assertTrue(solver.solve());
+
+        SolveStats stats = solver.getStats();
+        // every number is placed as a naked single once the deductions leave one candidate
+        assertEquals(BLANKS, stats.getTechniqueCount(Technique.NAKED_SINGLE));
+        assertEquals(0, stats.getBacktracks());
+        assertEquals(0, stats.getTechniqueCount(Technique.NAKED_TRIPLE));
+        assertEquals(stats.getTechniqueCount(Technique.HIDDEN_SINGLE),
+                (long) stats.toMap().get("technique.HIDDEN_SINGLE"));
+    }
+
+    @Test
+    @DisplayName("Stats should be copies reset by every solve")
+    void testStatsCopy() {
+        int[][] unsolvable = new int[9][9];
+        unsolvable[0][0] = 1;
+        unsolvable[0][1] = 1;
+
+        SudokuSolverDancingLinks solver = new SudokuSolverDancingLinks(new SudokuGame(EASY_BOARD, null, 9, 0));
+        assertTrue(solver.solve());
+        SolveStats first = solver.getStats();
+
+        // solved already, nothing left to search
+        assertTrue(solver.solve());
+        assertEquals(BLANKS, first.getAssignments() - first.getBacktracks());
+        assertEquals(0, solver.getStats().getAssignments());
+
+        SudokuSolver failing = new SudokuSolverBrutalForce(new SudokuGame(unsolvable, null, 9, 0));
+        assertFalse(failing.solve());
+        assertEquals(1, failing.getStats().getSolves());
+        assertEquals(0, failing.getStats().getSolved());
+    }
+
+    @Test
+    @DisplayName("Metrics should add up solves across threads")
+    void testAggregate() {
+        SolverMetrics metrics = new SolverMetrics();
+        int puzzles = 50;
+
+        List<BatchSolver.Result> results;
+        try (BatchSolver batch = new BatchSolver(3, 4, 9, 0, game -> {
+            SudokuSolver solver = new SudokuSolverHuman(game);
+            solver.setMetrics(metrics);
+            return solver;
+        })) {
+            Stream<int[][]> input = IntStream.range(0, puzzles).mapToObj(i -> EASY_BOARD);
+            results = batch.solveAll(input);
+        }
+
+        SolveStats total = metrics.snapshot();
+        long nodes = 0;
+        for (BatchSolver.Result result : results)
+            nodes += result.getStats().getNodes();
+
+        assertEquals(puzzles, total.getSolves());
+        assertEquals(puzzles, total.getSolved());
+        assertEquals(nodes, total.getNodes());
+        assertEquals(puzzles * BLANKS, total.getTechniqueCount(Technique.NAKED_SINGLE));
+
+        metrics.reset();
+        assertEquals(0, metrics.snapshot().getSolves());
+    }
+}
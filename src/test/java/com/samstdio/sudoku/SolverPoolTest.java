@@ -0,0 +1,132 @@
+package com.samstdio.sudoku;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for SolverPool and the reset of games and solvers.
+ *
+ * A game and solver reset to a new board solve it as a new pair would:
+ * - Every solver takes up the new board and forgets a cancel
+ * - Each thread keeps one game and solver per board size
+ * - Batch workers build their solver once and reuse it
+ */
+class SolverPoolTest {
+
+    private static final String UNSOLVABLE =
+            "700000010400000000020000000000050407008000300001090000300400200050100000000806000";
+
+    @Test
+    @DisplayName("Every solver should solve puzzle after puzzle after reset")
+    void testReset() {
+        List<int[][]> boards = new PuzzleGenerator(7).generateAll(12, null)
+                .map(PuzzleGenerator.Puzzle::getBoard)
+                .collect(Collectors.toList());
+        boards.add(3, PuzzleFormat.parse(UNSOLVABLE));
+
+        List<Function<SudokuGame, SudokuSolver>> factories = List.of(
+                SudokuSolverHuman::new,
+                SudokuSolverBrutalForce::new,
+                game -> new SudokuSolverBrutalForce(game, SearchOrder.SEQUENTIAL),
+                SudokuSolverDancingLinks::new,
+                SudokuSolverBitboard::new,
+                SudokuSolverParallel::new,
+                game -> new SudokuSolverCached(game, new SolveCache(4), SudokuSolverDancingLinks::new));
+
+        for (Function<SudokuGame, SudokuSolver> factory : factories) {
+            SudokuGame game = new SudokuGame(boards.get(0), null, 9, 0);
+            SudokuSolver solver = factory.apply(game);
+
+            for (int[][] board : boards) {
+                SudokuGame expected = new SudokuGame(board, null, 9, 0);
+                SolveResult truth = new SudokuSolverDancingLinks(expected).solve(SolveBudget.UNLIMITED);
+
+                game.reset(board);
+                solver.reset();
+                // the brute force search needs a budget on the unsolvable board
+                SolveBudget budget = truth == SolveResult.SOLVED ? SolveBudget.UNLIMITED : SolveBudget.ofNodes(1_000_000);
+                SolveResult result = solver.solve(budget);
+
+                if (truth == SolveResult.SOLVED) {
+                    assertEquals(SolveResult.SOLVED, result);
+                    assertArrayEquals(expected.getBoard(), game.getBoard());
+                } else {
+                    assertNotEquals(SolveResult.SOLVED, result);
+                }
+            }
+
+            game.reset(boards.get(0));
+            solver.reset();
+            solver.cancel();
+            assertEquals(SolveResult.CANCELLED, solver.solve(SolveBudget.UNLIMITED));
+
+            solver.reset();
+            assertEquals(SolveResult.SOLVED, solver.solve(SolveBudget.UNLIMITED));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep one game and solver per thread and size")
+    void testPool() throws InterruptedException {
+        AtomicInteger built = new AtomicInteger();
+        SolverPool pool = new SolverPool(game -> {
+            built.incrementAndGet();
+            return new SudokuSolverDancingLinks(game);
+        });
+
+        int[][] small = {{1,0,0,0},{0,0,3,0},{0,4,0,0},{0,0,0,2}};
+        SolverPool.Entry first = pool.acquire(PuzzleFormat.parse(UNSOLVABLE));
+        assertEquals(SolveResult.UNSOLVABLE, first.getSolver().solve(SolveBudget.UNLIMITED));
+
+        SolverPool.Entry four = pool.acquire(small);
+        assertTrue(four.getSolver().solve());
+        assertNotSame(first, four);
+
+        SolverPool.Entry again = pool.acquire(PuzzleFormat.parse(UNSOLVABLE.replace('7', '0')));
+        assertSame(first, again);
+        assertTrue(again.getSolver().solve());
+        assertEquals(Verdict.CORRECT, again.getGame().grade());
+        assertEquals(2, built.get());
+
+        SolverPool.Entry[] other = new SolverPool.Entry[1];
+        Thread thread = new Thread(() -> other[0] = pool.acquire(small));
+        thread.start();
+        thread.join();
+        assertNotSame(four, other[0]);
+        assertEquals(3, built.get());
+
+        assertThrows(IllegalArgumentException.class, () -> pool.acquire(new int[6][6]));
+    }
+
+    @Test
+    @DisplayName("Batch workers should build their solver once")
+    void testBatch() {
+        AtomicInteger built = new AtomicInteger();
+        int puzzles = 500;
+
+        List<BatchSolver.Result> results;
+        try (BatchSolver batch = new BatchSolver(2, 8, 9, 0, game -> {
+            built.incrementAndGet();
+            return new SudokuSolverDancingLinks(game);
+        })) {
+            results = batch.solveAll(new PuzzleGenerator(9).generateAll(50, null)
+                    .map(PuzzleGenerator.Puzzle::getBoard)
+                    .collect(Collectors.toList())
+                    .stream()
+                    .flatMap(board -> Stream.generate(() -> board).limit(puzzles / 50)));
+        }
+
+        assertEquals(puzzles, results.size());
+        for (BatchSolver.Result result : results)
+            assertTrue(result.isSolved());
+        assertTrue(built.get() <= 2);
+    }
+}
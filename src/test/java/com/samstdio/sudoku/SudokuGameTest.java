@@ -0,0 +1,238 @@
+package com.samstdio.sudoku;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for SudokuGame class.
+ *
+ * The game keeps the board packed as one byte per cell:
+ * - assign accepts a number only if its row, column and section do not have it yet
+ * - unassign takes a number back
+ * - int[][] boards are copied in and out, never written to
+ * - reset takes up a new board in the same arrays
+ */
+class SudokuGameTest {
+
+    private int[][] easyBoard;
+
+    @BeforeEach
+    void setUp() {
+        easyBoard = new int[][] {
+            {4,2,0,5,0,0,0,7,0},
+            {0,0,0,4,6,0,1,0,5},
+            {0,6,0,9,1,0,0,3,0},
+            {6,0,2,0,8,0,4,5,0},
+            {7,0,5,2,0,0,9,6,0},
+            {9,4,0,7,0,0,0,0,0},
+            {0,5,0,0,7,0,3,0,0},
+            {3,0,0,6,0,1,0,8,2},
+            {0,0,9,0,0,0,0,0,0}
+        };
+    }
+
+    @Test
+    @DisplayName("Should accept only numbers missing from row, column and section")
+    void testAssign() {
+        SudokuGame game = new SudokuGame(easyBoard, null, 9, 0);
+
+        assertEquals(SudokuGame.AssignResult.NOT_ASSIGNABLE, game.assign(0, 2, 4));  // row
+        assertEquals(SudokuGame.AssignResult.NOT_ASSIGNABLE, game.assign(0, 2, 9));  // column
+        assertEquals(SudokuGame.AssignResult.NOT_ASSIGNABLE, game.assign(0, 2, 6));  // section
+        assertEquals(SudokuGame.AssignResult.ALREADY_ASSIGNED, game.assign(0, 0, 1));
+        assertEquals(SudokuGame.AssignResult.OUT_OF_BOARDER, game.assign(9, 0, 1));
+        assertEquals(SudokuGame.AssignResult.OK, game.assign(0, 2, 1));
+        assertEquals(1, game.getNumber(0, 2));
+    }
+
+    @Test
+    @DisplayName("Should take an assignment back")
+    void testUnassign() {
+        SudokuGame game = new SudokuGame(easyBoard, null, 9, 0);
+        long before = game.getCandidateMask(0, 4);
+
+        assertEquals(SudokuGame.AssignResult.OK, game.assign(0, 2, 1));
+        assertEquals(0, game.getCandidateMask(0, 4) & (1 << 1));
+
+        assertTrue(game.unassign(0, 2));
+        assertEquals(0, game.getNumber(0, 2));
+        assertEquals(before, game.getCandidateMask(0, 4));
+        assertFalse(game.unassign(0, 2));
+    }
+
+    @Test
+    @DisplayName("Should list candidates of a blank as a bit mask")
+    void testCandidateMask() {
+        SudokuGame game = new SudokuGame(easyBoard, null, 9, 0);
+
+        // [0][2] : row has 2,4,5,7 column has 5,9 section has 2,4,6
+        assertEquals((1 << 1) | (1 << 3) | (1 << 8), game.getCandidateMask(0, 2));
+        assertEquals(0, game.getCandidateMask(0, 0));
+    }
+
+    @Test
+    @DisplayName("Should list the numbers of the game as a bit mask")
+    void testNumbersMask() {
+        SudokuGame game = new SudokuGame(easyBoard, null, 9, 0);
+
+        assertEquals(0b1111111110L, game.getNumbersMask());
+        assertEquals(9, game.getPossibleNumbers().size());
+        for (int num = 1; num <= 9; num++)
+            assertTrue(game.getPossibleNumbers().contains(num));
+    }
+
+    @Test
+    @DisplayName("Should copy boards in and out")
+    void testBoardCopies() {
+        SudokuGame game = new SudokuGame(easyBoard, null, 9, 0);
+
+        game.assign(0, 2, 1);
+        assertEquals(0, easyBoard[0][2]);
+
+        int[][] board = game.getBoard();
+        assertEquals(1, board[0][2]);
+
+        board[0][0] = 0;
+        assertEquals(4, game.getNumber(0, 0));
+    }
+
+    @Test
+    @DisplayName("Should build from a packed board")
+    void testPackedBoard() {
+        byte[] cells = new byte[81];
+        for (int row = 0; row < 9; row++)
+            for (int col = 0; col < 9; col++)
+                cells[row * 9 + col] = (byte) easyBoard[row][col];
+
+        SudokuGame game = new SudokuGame(cells, null, 9, 0);
+
+        assertEquals(9, game.getSize());
+        assertEquals(47, game.getBlankPosition().length);
+        assertArrayEquals(easyBoard, game.getBoard());
+    }
+
+    @Test
+    @DisplayName("Should keep the blank set up to date through assign and unassign")
+    void testBlankTracking() {
+        SudokuGame game = new SudokuGame(easyBoard, null, 9, 0);
+        int blanks = game.getBlankCount();
+        int[][] positions = game.getBlankPosition();
+        int row = positions[0][0];
+        int col = positions[0][1];
+        int num = Long.numberOfTrailingZeros(game.getCandidateMask(row, col));
+
+        assertEquals(47, blanks);
+        assertEquals(blanks, positions.length);
+
+        assertEquals(SudokuGame.AssignResult.OK, game.assign(row, col, num));
+        assertEquals(blanks - 1, game.getBlankCount());
+        for (int i = 0; i < game.getBlankCount(); i++)
+            assertTrue(game.getBlankCell(i) != row * 9 + col);
+
+        // rejected assignments leave the set alone
+        game.assign(row, col, num);
+        assertEquals(blanks - 1, game.getBlankCount());
+
+        assertTrue(game.unassign(row, col));
+        assertFalse(game.unassign(row, col));
+        assertEquals(blanks, game.getBlankCount());
+        assertArrayEquals(positions, game.getBlankPosition());
+
+        boolean[] seen = new boolean[81];
+        for (int i = 0; i < game.getBlankCount(); i++) {
+            int cell = game.getBlankCell(i);
+            assertTrue(game.isBlank(cell / 9, cell % 9));
+            assertFalse(seen[cell]);
+            seen[cell] = true;
+        }
+    }
+
+    @Test
+    @DisplayName("Should find 20 peers for every cell")
+    void testPeers() {
+        SudokuGame game = new SudokuGame(easyBoard, null, 9, 0);
+
+        for (int cell = 0; cell < 81; cell++)
+            assertEquals(20, game.getPeers(cell).length);
+    }
+
+    @Test
+    @DisplayName("Should derive sections from the board size")
+    void testSections() {
+        int[][] board4 = new int[][] {
+            {1,0,0,0},
+            {0,0,3,0},
+            {0,0,0,0},
+            {0,4,0,0}
+        };
+        SudokuGame game = new SudokuGame(board4, null, 4, 0);
+
+        assertEquals(2, game.getBox());
+        assertArrayEquals(new int[] {1,0,0,0}, game.getSection(1, 1));
+        assertArrayEquals(new int[] {0,0,3,0}, game.getSection(0, 3));
+        // 1 shares the top left section, 3 does not
+        assertEquals(SudokuGame.AssignResult.NOT_ASSIGNABLE, game.assign(1, 1, 1));
+        assertEquals(SudokuGame.AssignResult.OK, game.assign(1, 1, 2));
+        assertEquals(7, game.getPeers(0).length);
+
+        int[][] board16 = new int[16][16];
+        board16[5][6] = 16;
+        SudokuGame game16 = new SudokuGame(board16, null, 16, 0);
+
+        assertEquals(4, game16.getBox());
+        assertEquals(16, game16.getSection(7, 4)[6]);
+        assertEquals(0, game16.getCandidateMask(4, 7) & (1L << 16));
+        assertEquals(39, game16.getPeers(0).length);
+    }
+
+    @Test
+    @DisplayName("Should reject boards whose size is not a square")
+    void testBadSize() {
+        assertThrows(IllegalArgumentException.class, () -> new SudokuGame(new int[6][6], null, 6, 0));
+    }
+
+    @Test
+    @DisplayName("Should detect repeated givens")
+    void testConsistency() {
+        assertTrue(new SudokuGame(easyBoard, null, 9, 0).isConsistent());
+
+        easyBoard[0][2] = 4;
+        assertFalse(new SudokuGame(easyBoard, null, 9, 0).isConsistent());
+    }
+
+    @Test
+    @DisplayName("Should take up a new board on reset")
+    void testReset() {
+        SudokuGame game = new SudokuGame(easyBoard, null, 9, 0);
+        game.assign(0, 2, 1);
+
+        int[][] repeated = copy(easyBoard);
+        repeated[0][2] = 4;
+        game.reset(repeated);
+        assertFalse(game.isConsistent());
+
+        game.reset(easyBoard);
+        assertTrue(game.isConsistent());
+        assertArrayEquals(easyBoard, game.getBoard());
+        assertEquals(new SudokuGame(easyBoard, null, 9, 0).getBlankCount(), game.getBlankCount());
+        assertEquals(SudokuGame.AssignResult.OK, game.assign(0, 2, 1));
+
+        byte[] empty = new byte[81];
+        game.reset(empty);
+        assertEquals(81, game.getBlankCount());
+        assertEquals(0x3FEL, game.getCandidateMask(4, 4));
+
+        assertThrows(IllegalArgumentException.class, () -> game.reset(new int[4][4]));
+        assertThrows(IllegalArgumentException.class, () -> game.reset(new byte[16]));
+    }
+
+    private static int[][] copy(int[][] board) {
+        int[][] copy = new int[board.length][];
+        for (int i = 0; i < board.length; i++)
+            copy[i] = board[i].clone();
+        return copy;
+    }
+}
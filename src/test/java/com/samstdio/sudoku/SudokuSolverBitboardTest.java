@@ -0,0 +1,141 @@
+package com.samstdio.sudoku;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for SudokuSolverBitboard class.
+ *
+ * This solver keeps each number's cells as three 27 bit band words:
+ * - Band words are pruned to the placements left by the number's row and column permutations
+ * - Naked and hidden singles are found a band at a time with bit arithmetic
+ * - It fills the same board Dancing Links does, and finds the same boards unsolvable
+ */
+class SudokuSolverBitboardTest {
+
+    private static final int[][] HARD_BOARD = {
+        {0,0,0,0,0,0,0,1,0},
+        {4,0,0,0,0,0,0,0,0},
+        {0,2,0,0,0,0,0,0,0},
+        {0,0,0,0,5,0,4,0,7},
+        {0,0,8,0,0,0,3,0,0},
+        {0,0,1,0,9,0,0,0,0},
+        {3,0,0,4,0,0,2,0,0},
+        {0,5,0,1,0,0,0,0,0},
+        {0,0,0,8,0,6,0,0,0}
+    };
+
+    @Test
+    @DisplayName("Should solve generated puzzles like Dancing Links")
+    void testGenerated() {
+        List<PuzzleGenerator.Puzzle> puzzles = new PuzzleGenerator(3).generateAll(30, null)
+                .collect(Collectors.toList());
+
+        for (PuzzleGenerator.Puzzle puzzle : puzzles) {
+            SudokuGame expected = new SudokuGame(puzzle.getBoard(), null, 9, 0);
+            assertTrue(new SudokuSolverDancingLinks(expected).solve());
+
+            SudokuGame game = new SudokuGame(puzzle.getBoard(), null, 9, 0);
+            SudokuSolverBitboard solver = new SudokuSolverBitboard(game);
+            assertEquals(SolveResult.SOLVED, solver.solve(SolveBudget.UNLIMITED));
+            assertTrue(game.solved());
+            assertArrayEquals(expected.getBoard(), game.getBoard());
+
+            SolveStats stats = solver.getStats();
+            assertEquals(81 - clues(puzzle.getBoard()), stats.getAssignments() - stats.getBacktracks());
+        }
+    }
+
+    @Test
+    @DisplayName("Should agree with Dancing Links on random boards")
+    void testRandomBoards() {
+        Random random = new Random(11);
+
+        for (int i = 0; i < 300; i++) {
+            int[][] board = new int[9][9];
+            SudokuGame source = new SudokuGame(board, null, 9, 0);
+            // random clues that do not clash outright, solvable or not
+            for (int clue = 0; clue < 24; clue++) {
+                int row = random.nextInt(9);
+                int col = random.nextInt(9);
+                if (source.isBlank(row, col))
+                    source.assign(row, col, 1 + random.nextInt(9));
+            }
+
+            SudokuGame expected = new SudokuGame(source.getBoard(), null, 9, 0);
+            SolveResult truth = new SudokuSolverDancingLinks(expected).solve(SolveBudget.UNLIMITED);
+
+            SudokuGame game = new SudokuGame(source.getBoard(), null, 9, 0);
+            assertEquals(truth, new SudokuSolverBitboard(game).solve(SolveBudget.UNLIMITED));
+            if (truth == SolveResult.SOLVED)
+                assertSolves(source.getBoard(), game);
+        }
+    }
+
+    @Test
+    @DisplayName("Should report unsolvable boards and clashing givens")
+    void testUnsolvable() {
+        int[][] board = copy(HARD_BOARD);
+        board[0][0] = 7;
+        assertEquals(SolveResult.UNSOLVABLE,
+                new SudokuSolverBitboard(new SudokuGame(board, null, 9, 0)).solve(SolveBudget.UNLIMITED));
+
+        int[][] clash = copy(HARD_BOARD);
+        clash[0][0] = 1;
+        assertEquals(SolveResult.UNSOLVABLE,
+                new SudokuSolverBitboard(new SudokuGame(clash, null, 9, 0)).solve(SolveBudget.UNLIMITED));
+    }
+
+    @Test
+    @DisplayName("Should stop on budget and cancel")
+    void testBudget() {
+        // the permutation pruning takes the hard board in one node, a blank one needs more
+        SudokuGame blank = new SudokuGame(new int[9][9], null, 9, 0);
+        SudokuSolverBitboard solver = new SudokuSolverBitboard(blank);
+        assertEquals(SolveResult.BUDGET_EXCEEDED, solver.solve(SolveBudget.ofNodes(1)));
+        assertEquals(SolveResult.SOLVED, solver.solve(SolveBudget.UNLIMITED));
+
+        SudokuSolverBitboard cancelled = new SudokuSolverBitboard(new SudokuGame(HARD_BOARD, null, 9, 0));
+        cancelled.cancel();
+        assertEquals(SolveResult.CANCELLED, cancelled.solve(SolveBudget.UNLIMITED));
+    }
+
+    @Test
+    @DisplayName("Should only take 9x9 boards")
+    void testSize() {
+        int[][] small = {{1,0,0,0},{0,0,3,0},{0,4,0,0},{0,0,0,2}};
+        assertThrows(IllegalArgumentException.class,
+                () -> new SudokuSolverBitboard(new SudokuGame(small, null, 4, 0)));
+    }
+
+    private static void assertSolves(int[][] board, SudokuGame game) {
+        int[][] solved = game.getBoard();
+
+        assertTrue(game.solved());
+        for (int row = 0; row < 9; row++)
+            for (int col = 0; col < 9; col++)
+                assertTrue(board[row][col] == 0 || board[row][col] == solved[row][col]);
+    }
+
+    private static int clues(int[][] board) {
+        int count = 0;
+        for (int[] row : board)
+            for (int number : row)
+                if (number != 0)
+                    count++;
+        return count;
+    }
+
+    private static int[][] copy(int[][] board) {
+        int[][] copy = new int[board.length][];
+        for (int i = 0; i < board.length; i++)
+            copy[i] = board[i].clone();
+        return copy;
+    }
+}
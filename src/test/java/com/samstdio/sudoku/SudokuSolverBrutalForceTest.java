@@ -228,6 +228,108 @@ class SudokuSolverBrutalForceTest {
         System.setOut(originalOut);
     }
 
+    @Test
+    @DisplayName("Should backtrack to solve a hard puzzle")
+    void testSolveHardPuzzle() {
+        int[][] hardBoard = new int[][] {
+            {3,0,6,0,0,0,0,8,0},
+            {0,0,0,0,4,0,2,0,0},
+            {1,0,0,0,0,2,0,0,7},
+            {0,9,0,6,0,0,0,0,0},
+            {0,0,7,0,1,0,4,0,0},
+            {0,0,0,0,0,3,0,5,0},
+            {5,0,0,8,0,0,0,0,1},
+            {0,0,4,0,2,0,0,0,0},
+            {0,8,0,0,0,0,9,0,3}
+        };
+
+        SudokuGame game = new SudokuGame(hardBoard, null, 9, 0);
+        SudokuSolverBrutalForce solver = new SudokuSolverBrutalForce(game);
+
+        assertTrue(solver.solve());
+        assertTrue(game.solved());
+
+        // Givens are kept
+        assertEquals(3, game.getNumber(0, 0));
+        assertEquals(9, game.getNumber(8, 6));
+
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Sequential order solves the same puzzle as MRV")
+    void testSequentialOrder() {
+        int[][] hardBoard = new int[][] {
+            {0,0,0,0,0,1,0,0,2},
+            {0,0,0,0,0,6,8,5,0},
+            {0,0,0,2,8,0,0,9,0},
+            {0,0,2,5,0,0,0,6,4},
+            {0,0,8,0,4,0,2,0,0},
+            {7,3,0,0,0,9,1,0,0},
+            {0,5,0,0,6,2,0,0,0},
+            {0,1,7,9,0,0,0,0,0},
+            {8,0,0,4,0,0,0,0,0}
+        };
+
+        SudokuGame sequential = new SudokuGame(copyBoard(hardBoard), null, 9, 0);
+        SudokuGame mrv = new SudokuGame(copyBoard(hardBoard), null, 9, 0);
+
+        assertTrue(new SudokuSolverBrutalForce(sequential, SearchOrder.SEQUENTIAL).solve());
+        assertTrue(new SudokuSolverBrutalForce(mrv, SearchOrder.MRV).solve());
+
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                assertEquals(sequential.getNumber(row, col), mrv.getNumber(row, col));
+            }
+        }
+
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Should report a puzzle without solution")
+    void testNoSolution() {
+        // [0][8] needs 9, but column 8 already has a 9
+        int[][] unsolvableBoard = new int[][] {
+            {1,2,3,4,5,6,7,8,0},
+            {0,0,0,0,0,0,0,0,9},
+            {0,0,0,0,0,0,0,0,0},
+            {0,0,0,0,0,0,0,0,0},
+            {0,0,0,0,0,0,0,0,0},
+            {0,0,0,0,0,0,0,0,0},
+            {0,0,0,0,0,0,0,0,0},
+            {0,0,0,0,0,0,0,0,0},
+            {0,0,0,0,0,0,0,0,0}
+        };
+
+        SudokuGame game = new SudokuGame(unsolvableBoard, null, 9, 0);
+        SudokuSolverBrutalForce solver = new SudokuSolverBrutalForce(game);
+
+        assertFalse(solver.solve());
+        assertFalse(game.solved());
+
+        // Every tried number is taken back
+        assertEquals(0, game.getNumber(0, 8));
+        assertEquals(0, game.getNumber(2, 0));
+
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Should reject a board with repeated givens")
+    void testInconsistentBoard() {
+        int[][] conflictBoard = copyBoard(easyBoard);
+        conflictBoard[0][4] = 0;
+        conflictBoard[1][8] = 9;  // row 1 now has two 9s
+
+        SudokuGame game = new SudokuGame(conflictBoard, easySolution, 9, 0);
+        SudokuSolverBrutalForce solver = new SudokuSolverBrutalForce(game);
+
+        assertFalse(solver.solve());
+
+        System.setOut(originalOut);
+    }
+
     /**
      * Helper method to create a deep copy of the board
      * (since we're modifying it during solving)
@@ -0,0 +1,201 @@
+package com.samstdio.sudoku;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for SudokuSolverDancingLinks class.
+ *
+ * This solver turns the board into an exact cover problem:
+ * - Each (row, col, number) choice covers its cell, row, column and section constraints
+ * - Algorithm X picks the constraint with the fewest choices left and backtracks
+ * - Dancing Links makes covering and uncovering constraints cheap
+ */
+class SudokuSolverDancingLinksTest {
+
+    private int[][] hardBoard;
+    private int[][] hardSolution;
+
+    @BeforeEach
+    void setUp() {
+        // 17 clues, out of reach for the human solver
+        hardBoard = new int[][] {
+            {0,0,0,0,0,0,0,1,0},
+            {4,0,0,0,0,0,0,0,0},
+            {0,2,0,0,0,0,0,0,0},
+            {0,0,0,0,5,0,4,0,7},
+            {0,0,8,0,0,0,3,0,0},
+            {0,0,1,0,9,0,0,0,0},
+            {3,0,0,4,0,0,2,0,0},
+            {0,5,0,1,0,0,0,0,0},
+            {0,0,0,8,0,6,0,0,0}
+        };
+
+        hardSolution = new int[][] {
+            {6,9,3,7,8,4,5,1,2},
+            {4,8,7,5,1,2,9,3,6},
+            {1,2,5,9,6,3,8,7,4},
+            {9,3,2,6,5,1,4,8,7},
+            {5,6,8,2,4,7,3,9,1},
+            {7,4,1,3,9,8,6,2,5},
+            {3,1,9,4,7,5,2,6,8},
+            {8,5,6,1,2,9,7,4,3},
+            {2,7,4,8,3,6,1,5,9}
+        };
+    }
+
+    @Test
+    @DisplayName("Should solve a 17 clue puzzle")
+    void testSolveHardPuzzle() {
+        SudokuGame game = new SudokuGame(copyBoard(hardBoard), hardSolution, 9, 0);
+        SudokuSolverDancingLinks solver = new SudokuSolverDancingLinks(game);
+
+        assertTrue(solver.solve());
+        assertTrue(game.solved());
+
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                assertEquals(hardSolution[row][col], game.getNumber(row, col),
+                    String.format("Mismatch at position [%d][%d]", row, col));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should handle already solved puzzle")
+    void testAlreadySolved() {
+        SudokuGame game = new SudokuGame(copyBoard(hardSolution), hardSolution, 9, 0);
+        SudokuSolverDancingLinks solver = new SudokuSolverDancingLinks(game);
+
+        assertTrue(solver.solve());
+        assertTrue(game.solved());
+    }
+
+    @Test
+    @DisplayName("Should report a puzzle without solution")
+    void testNoSolution() {
+        int[][] unsolvableBoard = copyBoard(hardBoard);
+        unsolvableBoard[0][0] = 7;  // 7 is forced elsewhere in row 0's solution
+
+        SudokuGame game = new SudokuGame(unsolvableBoard, null, 9, 0);
+        SudokuSolverDancingLinks solver = new SudokuSolverDancingLinks(game);
+
+        assertFalse(solver.solve());
+        assertEquals(0, game.getNumber(0, 1));
+    }
+
+    @Test
+    @DisplayName("Should reject a board with repeated givens")
+    void testInconsistentBoard() {
+        int[][] conflictBoard = copyBoard(hardBoard);
+        conflictBoard[0][0] = 1;  // row 0 now has two 1s
+
+        SudokuGame game = new SudokuGame(conflictBoard, null, 9, 0);
+        SudokuSolverDancingLinks solver = new SudokuSolverDancingLinks(game);
+
+        assertFalse(solver.solve());
+    }
+
+    @Test
+    @DisplayName("Solver can be run again on the restored matrix")
+    void testSolveTwice() {
+        SudokuGame game = new SudokuGame(copyBoard(hardBoard), hardSolution, 9, 0);
+        SudokuSolverDancingLinks solver = new SudokuSolverDancingLinks(game);
+
+        assertTrue(solver.solve());
+        // nothing left to fill, the givens are now the full grid
+        assertTrue(solver.solve());
+        assertTrue(game.solved());
+    }
+
+    @Test
+    @DisplayName("Should count solutions up to two without touching the game")
+    void testCountSolutions() {
+        SudokuGame game = new SudokuGame(copyBoard(hardBoard), hardSolution, 9, 0);
+        SudokuSolverDancingLinks solver = new SudokuSolverDancingLinks(game);
+
+        assertEquals(SolutionCount.UNIQUE, solver.countSolutions());
+        assertEquals(64, game.getBlankCount());
+        assertArrayEquals(hardBoard, game.getBoard());
+
+        // the matrix is restored, so the same solver still solves
+        assertTrue(solver.solve());
+        assertArrayEquals(hardSolution, game.getBoard());
+        assertEquals(SolutionCount.UNIQUE, solver.countSolutions());
+
+        int[][] missingClue = copyBoard(hardBoard);
+        missingClue[0][7] = 0;  // 17 is the fewest clues a unique puzzle can have
+        assertEquals(SolutionCount.MULTIPLE,
+                new SudokuSolverDancingLinks(new SudokuGame(missingClue, null, 9, 0)).countSolutions());
+        assertEquals(SolutionCount.MULTIPLE,
+                new SudokuSolverDancingLinks(new SudokuGame(new int[9][9], null, 9, 0)).countSolutions());
+
+        int[][] unsolvableBoard = copyBoard(hardBoard);
+        unsolvableBoard[0][0] = 7;
+        assertEquals(SolutionCount.NONE,
+                new SudokuSolverDancingLinks(new SudokuGame(unsolvableBoard, null, 9, 0)).countSolutions());
+
+        int[][] conflictBoard = copyBoard(hardBoard);
+        conflictBoard[0][0] = 1;
+        assertEquals(SolutionCount.NONE,
+                new SudokuSolverDancingLinks(new SudokuGame(conflictBoard, null, 9, 0)).countSolutions());
+    }
+
+    @Test
+    @DisplayName("Should solve 16x16 and 25x25 boards")
+    void testLargeBoards() {
+        String grid16 = "5.8..4........3AB9D..8C.....E7143..G...B.17E..581E...AG3...F92BDF.C..75E...DA16G9D.3......1"
+            + "...E...G1D.397...8B.C.4.5..1...........B.7...3D.....1D..6.B981AEG7...4.5.G1EA.89C2.D..G..2."
+            + "6.5.F7C9.B.1.4.6...7.5....2..AB9D.EG...87.C.9..F8...A3.4.E.5..1E4G...B....";
+        String grid25 = "7L.A.P....O3.I8..4.5.2..K9..JKB5..4...7A.I3.D..PFC.B4.5L.7A..NCHFM.2J..3O8DI..8....J...5..P"
+            + "..F...L.GH.NFC.D..3M2.9...1.G6..E5.85IO.M.9GE.B46F..HP..A7.1AD7L.P.H.85.3IE.C6.2.J9M4.C6.A."
+            + ".....PNH....M35.I.2.G.ME.46.A..17..5.....HPN.K..8O..5..M...1..L4........I..............HO8"
+            + "1D.P.F..17OD8NJH..2.A.......O18.7NH.K.3..B.4P.C6.A..9M....3.B5E..9LG..8.7PF..6..AG94..CF..7"
+            + "...BE.IM...H...O1KNJ..563.BC.HP.A..L..G7.2C....D.1.O5.6.3.9.MN..H.4.18.I..NJ.G.7.2.6..3JK9M"
+            + ".5..B6...ALD8...FHC.4.56B3G....CH.F.K.9MN8ID.1G9...6..4....D.I...8KM..F.....9.G2..P.C4H..."
+            + "FD.7.AC.P.E.A..O....N.G.2J5...8..M.F...3B9LJ.27D.1..P6.E....AH.KN.I.8.36CP4..L.2J";
+
+        for (String puzzle : new String[] {grid16, grid25}) {
+            int size = (int) Math.round(Math.sqrt(puzzle.length()));
+            int[][] board = new int[size][size];
+            for (int i = 0; i < puzzle.length(); i++)
+                board[i / size][i % size] = PuzzleFormat.decode((byte) puzzle.charAt(i));
+
+            SudokuGame game = new SudokuGame(board, null, size, 0);
+            assertTrue(new SudokuSolverDancingLinks(game).solve());
+            assertTrue(game.solved());
+
+            // givens kept, every unit holds each number once
+            int box = game.getBox();
+            for (int i = 0; i < size; i++) {
+                long row = 0, col = 0, sec = 0;
+                for (int j = 0; j < size; j++) {
+                    if (board[i][j] != 0)
+                        assertEquals(board[i][j], game.getNumber(i, j));
+
+                    row |= 1L << game.getNumber(i, j);
+                    col |= 1L << game.getNumber(j, i);
+                    sec |= 1L << game.getNumber((i / box) * box + j / box, (i % box) * box + j % box);
+                }
+                long all = ((1L << size) - 1) << 1;
+                assertEquals(all, row);
+                assertEquals(all, col);
+                assertEquals(all, sec);
+            }
+        }
+    }
+
+    /**
+     * Helper method to create a deep copy of the board
+     */
+    private int[][] copyBoard(int[][] original) {
+        int[][] copy = new int[original.length][];
+        for (int i = 0; i < original.length; i++) {
+            copy[i] = original[i].clone();
+        }
+        return copy;
+    }
+}
@@ -16,7 +16,8 @@ import static org.junit.jupiter.api.Assertions.*;
  * - For each blank cell, finds all possible valid numbers
  * - Uses constraint propagation (row, column, section constraints)
  * - Only assigns a number when there's exactly ONE possibility
- * - More intelligent than brute force but may not solve harder puzzles
+ * - More intelligent than brute force but may not solve harder puzzles by deduction alone
+ * - Guesses and backtracks where the deductions stall, so every valid puzzle finishes
  *
  * Key strategy: If a cell has only one possible valid number after considering
  * all constraints (row, column, and 3x3 section), assign that number.
@@ -280,6 +281,215 @@ class SudokuSolverHumanTest {
         System.setOut(originalOut);
     }
 
+    @Test
+    @DisplayName("Deduction pipeline solves a puzzle naked singles cannot")
+    void testDeductionPipeline() {
+        int[][] hardBoard = new int[][] {
+            {3,0,6,0,0,0,0,8,0},
+            {0,0,0,0,4,0,2,0,0},
+            {1,0,0,0,0,2,0,0,7},
+            {0,9,0,6,0,0,0,0,0},
+            {0,0,7,0,1,0,4,0,0},
+            {0,0,0,0,0,3,0,5,0},
+            {5,0,0,8,0,0,0,0,1},
+            {0,0,4,0,2,0,0,0,0},
+            {0,8,0,0,0,0,9,0,3}
+        };
+
+        // Naked singles alone get stuck
+        SudokuGame singlesOnly = new SudokuGame(copyBoard(hardBoard), null, 9, 0);
+        SudokuSolverHuman singlesSolver = new SudokuSolverHuman(singlesOnly,
+            new DeductionPipeline(java.util.Collections.emptyList()));
+        assertFalse(singlesSolver.solve());
+        assertFalse(singlesOnly.solved());
+
+        // Hidden singles, subsets, pointing pairs and box/line reduction finish it
+        SudokuGame game = new SudokuGame(copyBoard(hardBoard), null, 9, 0);
+        SudokuSolverHuman solver = new SudokuSolverHuman(game, DeductionPipeline.standard());
+        assertTrue(solver.solve());
+        assertTrue(game.solved());
+        assertEquals(0, solver.getStats().getTechniqueCount(Technique.GUESS));
+
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Solver stopped mid-guess solves the board on the next call")
+    void testResolveAfterStop() {
+        int[][] board = PuzzleFormat.parse(
+            "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..");
+
+        for (int nodes = 1; nodes <= 200; nodes += 7) {
+            SudokuGame game = new SudokuGame(copyBoard(board), null, 9, 0);
+            SudokuSolverHuman solver = new SudokuSolverHuman(game);
+
+            assertEquals(SolveResult.BUDGET_EXCEEDED, solver.solve(SolveBudget.ofNodes(nodes)));
+            assertEquals(SolveResult.SOLVED, solver.solve(SolveBudget.UNLIMITED), "stopped at " + nodes);
+            assertTrue(game.solved());
+        }
+
+        SudokuGame game = new SudokuGame(copyBoard(board), null, 9, 0);
+        SudokuSolverHuman solver = new SudokuSolverHuman(game);
+        solver.cancel();
+        assertEquals(SolveResult.CANCELLED, solver.solve(SolveBudget.UNLIMITED));
+        solver.reset();
+        assertEquals(SolveResult.SOLVED, solver.solve(SolveBudget.UNLIMITED));
+
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Stalled deduction falls back to guessing")
+    void testGuessing() {
+        int[][] hardBoard = new int[][] {
+            {0,0,0,0,0,0,0,1,0},
+            {4,0,0,0,0,0,0,0,0},
+            {0,2,0,0,0,0,0,0,0},
+            {0,0,0,0,5,0,4,0,7},
+            {0,0,8,0,0,0,3,0,0},
+            {0,0,1,0,9,0,0,0,0},
+            {3,0,0,4,0,0,2,0,0},
+            {0,5,0,1,0,0,0,0,0},
+            {0,0,0,8,0,6,0,0,0}
+        };
+
+        int[][] expertBoard = new int[][] {
+            {4,8,0,0,0,1,0,6,0},
+            {9,0,0,0,0,7,0,0,0},
+            {0,3,0,0,0,6,0,0,0},
+            {0,0,0,0,0,0,3,0,0},
+            {0,6,0,0,0,0,0,9,0},
+            {1,9,0,8,0,5,0,0,0},
+            {0,2,0,0,7,8,5,0,0},
+            {0,0,0,0,5,0,7,0,0},
+            {3,0,0,0,2,0,4,0,1}
+        };
+
+        // Deduction alone stalls
+        assertFalse(new SudokuSolverHuman(new SudokuGame(copyBoard(expertBoard), null, 9, 0),
+            DeductionPipeline.standard()).solve());
+
+        SudokuGame expected = new SudokuGame(copyBoard(expertBoard), null, 9, 0);
+        assertTrue(new SudokuSolverDancingLinks(expected).solve());
+
+        SudokuGame game = new SudokuGame(copyBoard(expertBoard), null, 9, 0);
+        SudokuSolverHuman solver = new SudokuSolverHuman(game);
+        assertTrue(solver.solve());
+        assertArrayEquals(expected.getBoard(), game.getBoard());
+        assertTrue(solver.getStats().getTechniqueCount(Technique.GUESS) > 0);
+
+        // Many solutions, any one will do
+        SudokuGame empty = new SudokuGame(new int[9][9], null, 9, 0);
+        assertTrue(new SudokuSolverHuman(empty).solve());
+        assertTrue(empty.solved());
+
+        // No solution, every guess fails and the clues are left as they were
+        hardBoard[0][0] = 7;
+        SudokuGame unsolvable = new SudokuGame(copyBoard(hardBoard), null, 9, 0);
+        SudokuSolverHuman failing = new SudokuSolverHuman(unsolvable);
+        assertFalse(failing.solve());
+        assertEquals(failing.getStats().getAssignments(), failing.getStats().getBacktracks()
+            + (81 - 18 - unsolvable.getBlankCount()));
+
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Hidden single places a number with one spot left in a unit")
+    void testHiddenSingle() {
+        SudokuGame game = new SudokuGame(copyBoard(easyBoard), easySolution, 9, 0);
+        CandidateGrid grid = new CandidateGrid(game);
+
+        // Row 0 : 1 can only go in [0][2]
+        grid.setMask(2, (1 << 1) | (1 << 3));
+        grid.setMask(4, (1 << 3) | (1 << 8));
+        grid.setMask(5, (1 << 3) | (1 << 8));
+
+        assertTrue(new HiddenSingleStage().apply(grid));
+        assertEquals(1 << 1, grid.mask(2));
+
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Full board with a duplicated given is unsolvable")
+    void testDuplicatedGiven() {
+        int[][] board = copyBoard(easySolution);
+        board[0][2] = 2;    // row 0 holds 2 twice
+        SudokuGame game = new SudokuGame(board, null, 9, 0);
+
+        assertEquals(SolveResult.UNSOLVABLE, new SudokuSolverHuman(game).solve(SolveBudget.UNLIMITED));
+        assertFalse(game.solved());
+
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Naked pair trims the rest of a unit with exactly two cells of two candidates")
+    void testNakedPair() {
+        SudokuGame game = new SudokuGame(copyBoard(easyBoard), easySolution, 9, 0);
+        CandidateGrid grid = new CandidateGrid(game);
+
+        // Row 0 : [0][4] and [0][5] hold 1 and 3 between them, the other blanks hold more
+        grid.setMask(2, (1 << 1) | (1 << 3) | (1 << 6) | (1 << 8));
+        grid.setMask(4, (1 << 1) | (1 << 3));
+        grid.setMask(5, (1 << 1) | (1 << 3));
+        grid.setMask(6, (1 << 6) | (1 << 8) | (1 << 9));
+        grid.setMask(8, (1 << 6) | (1 << 8) | (1 << 9));
+
+        assertTrue(new NakedSubsetStage(2).apply(grid));
+        assertEquals((1 << 6) | (1 << 8), grid.mask(2));
+        assertEquals((1 << 1) | (1 << 3), grid.mask(4));
+        assertEquals((1 << 1) | (1 << 3), grid.mask(5));
+        assertEquals((1 << 6) | (1 << 8) | (1 << 9), grid.mask(6));
+
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Solver stays silent without a listener")
+    void testNoOutputWithoutListener() {
+        SudokuGame game = new SudokuGame(copyBoard(easyBoard), easySolution, 9, 0);
+        SudokuSolverHuman solver = new SudokuSolverHuman(game);
+
+        solver.solve();
+
+        assertEquals(0, outputStream.size());
+
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Listener receives every assignment and the finish")
+    void testListener() {
+        SudokuGame game = new SudokuGame(copyBoard(easyBoard), easySolution, 9, 0);
+        SudokuSolverHuman solver = new SudokuSolverHuman(game);
+        int blanks = game.getBlankPosition().length;
+
+        int[] assigned = new int[1];
+        boolean[] finished = new boolean[1];
+        solver.setListener(new SolveListener() {
+            @Override
+            public void onAssign(int row, int col, int num) {
+                assertEquals(easySolution[row][col], num);
+                assigned[0]++;
+            }
+
+            @Override
+            public void onFinish(SudokuGame finishedGame, boolean solved) {
+                assertTrue(solved);
+                finished[0] = true;
+            }
+        });
+
+        solver.solve();
+
+        assertEquals(blanks, assigned[0]);
+        assertTrue(finished[0]);
+
+        System.setOut(originalOut);
+    }
+
     /**
      * Helper method to create a deep copy of the board
      */
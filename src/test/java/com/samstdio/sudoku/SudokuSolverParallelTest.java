@@ -0,0 +1,123 @@
+package com.samstdio.sudoku;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for SudokuSolverParallel class.
+ *
+ * This solver splits the search of one board into fork-join tasks:
+ * - Each task searches its own copy of the board
+ * - The first solution stops the other tasks and is written back into the game
+ * - Counting lets every task run on until enough solutions are found
+ */
+class SudokuSolverParallelTest {
+
+    private static final int[][] HARD_BOARD = {
+        {0,0,0,0,0,0,0,1,0},
+        {4,0,0,0,0,0,0,0,0},
+        {0,2,0,0,0,0,0,0,0},
+        {0,0,0,0,5,0,4,0,7},
+        {0,0,8,0,0,0,3,0,0},
+        {0,0,1,0,9,0,0,0,0},
+        {3,0,0,4,0,0,2,0,0},
+        {0,5,0,1,0,0,0,0,0},
+        {0,0,0,8,0,6,0,0,0}
+    };
+
+    // more threads than this machine may have cores, its threads are daemons
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @Test
+    @DisplayName("Should solve a 17 clue puzzle like Dancing Links")
+    void testSolveHardPuzzle() {
+        SudokuGame expected = new SudokuGame(HARD_BOARD, null, 9, 0);
+        assertTrue(new SudokuSolverDancingLinks(expected).solve());
+
+        for (int split_depth : new int[] {0, 2, SudokuSolverParallel.DEFAULT_SPLIT_DEPTH}) {
+            SudokuGame game = new SudokuGame(HARD_BOARD, null, 9, 0);
+            SudokuSolverParallel solver = new SudokuSolverParallel(game, POOL, split_depth);
+
+            assertEquals(SolveResult.SOLVED, solver.solve(SolveBudget.UNLIMITED));
+            assertArrayEquals(expected.getBoard(), game.getBoard());
+            assertTrue(solver.getStats().getNodes() > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should solve a blank 16x16 board")
+    void testLargeBoard() {
+        SudokuGame game = new SudokuGame(new int[16][16], null, 16, 0);
+
+        assertTrue(new SudokuSolverParallel(game, POOL, 4).solve());
+        assertTrue(game.solved());
+    }
+
+    @Test
+    @DisplayName("Should count solutions up to the limit")
+    void testCount() {
+        // a blank 4x4 board has 288 solutions
+        SudokuGame small = new SudokuGame(new int[4][4], null, 4, 0);
+        SudokuSolverParallel solver = new SudokuSolverParallel(small, POOL, 3);
+
+        assertEquals(288, solver.countSolutions(Long.MAX_VALUE));
+        assertEquals(10, solver.countSolutions(10));
+        assertEquals(16, small.getBlankCount());
+
+        assertEquals(SolutionCount.UNIQUE,
+                new SudokuSolverParallel(new SudokuGame(HARD_BOARD, null, 9, 0), POOL, 4).countSolutions());
+
+        int[][] sparse = copy(HARD_BOARD);
+        sparse[0][7] = 0;
+        assertEquals(SolutionCount.MULTIPLE,
+                new SudokuSolverParallel(new SudokuGame(sparse, null, 9, 0), POOL, 4).countSolutions());
+
+        assertThrows(IllegalArgumentException.class, () -> solver.countSolutions(0));
+    }
+
+    @Test
+    @DisplayName("Should report unsolvable boards and leave them untouched")
+    void testUnsolvable() {
+        int[][] board = copy(HARD_BOARD);
+        board[0][0] = 7;
+        SudokuGame game = new SudokuGame(board, null, 9, 0);
+        SudokuSolverParallel solver = new SudokuSolverParallel(game, POOL, 4);
+
+        assertEquals(SolveResult.UNSOLVABLE, solver.solve(SolveBudget.UNLIMITED));
+        assertArrayEquals(board, game.getBoard());
+        assertEquals(SolutionCount.NONE, solver.countSolutions());
+
+        int[][] clash = copy(HARD_BOARD);
+        clash[0][0] = 1;
+        assertEquals(SolveResult.UNSOLVABLE,
+                new SudokuSolverParallel(new SudokuGame(clash, null, 9, 0), POOL, 4).solve(SolveBudget.UNLIMITED));
+    }
+
+    @Test
+    @DisplayName("Should stop on budget and cancel")
+    void testBudget() {
+        SudokuGame game = new SudokuGame(new int[16][16], null, 16, 0);
+        SudokuSolverParallel solver = new SudokuSolverParallel(game, POOL, 4);
+
+        assertEquals(SolveResult.BUDGET_EXCEEDED, solver.solve(SolveBudget.ofNodes(1)));
+        assertEquals(256, game.getBlankCount());
+
+        solver.cancel();
+        assertEquals(SolveResult.CANCELLED, solver.solve(SolveBudget.UNLIMITED));
+        assertThrows(CancellationException.class, () -> solver.countSolutions(Long.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SudokuSolverParallel(game, POOL, -1));
+    }
+
+    private static int[][] copy(int[][] board) {
+        int[][] copy = new int[board.length][];
+        for (int i = 0; i < board.length; i++)
+            copy[i] = board[i].clone();
+        return copy;
+    }
+}
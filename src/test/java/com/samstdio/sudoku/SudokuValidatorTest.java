@@ -0,0 +1,123 @@
+package com.samstdio.sudoku;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for SudokuValidator and SudokuGame.grade.
+ *
+ * Completed grids are checked against every row, column and box:
+ * - A repeat, a blank or a number out of range makes a grid invalid
+ * - Submissions are graded CORRECT, INCOMPLETE, INVALID or WRONG against the expected solution
+ * - A game grades its own board against the solution it was made with
+ */
+class SudokuValidatorTest {
+
+    private static final String PUZZLE =
+            "420500070000460105060910030602080450705200960940700000050070300300601082009000000";
+    private static final String SOLUTION =
+            "421538679893467125567912834632189457715243968948756213256874391374691582189325746";
+
+    @Test
+    @DisplayName("Should accept valid grids and reject broken ones")
+    void testIsValid() {
+        assertTrue(SudokuValidator.isValid(SOLUTION));
+        assertTrue(SudokuValidator.isValid(PuzzleFormat.parse(SOLUTION)));
+        assertTrue(SudokuValidator.isValid("1234341221434321"));
+
+        // two cells swapped in a row keep the row but break the columns
+        String swapped = "241538679" + SOLUTION.substring(9);
+        assertFalse(SudokuValidator.isValid(swapped));
+        assertFalse(SudokuValidator.isValid(PuzzleFormat.parse(swapped)));
+
+        // every row and column a permutation, the boxes not
+        StringBuilder latin = new StringBuilder();
+        for (int row = 0; row < 9; row++)
+            for (int col = 0; col < 9; col++)
+                latin.append((row + col) % 9 + 1);
+        assertFalse(SudokuValidator.isValid(latin));
+
+        assertFalse(SudokuValidator.isValid(PUZZLE));
+        assertFalse(SudokuValidator.isValid(SOLUTION.substring(1)));
+        assertFalse(SudokuValidator.isValid("x" + SOLUTION.substring(1)));
+        assertFalse(SudokuValidator.isValid(new int[][] {{1, 2}, {2, 1}}));
+        assertFalse(SudokuValidator.isValid(new int[][] {{1, 2, 3, 4}, {3, 4, 1, 2}, {2, 1, 4, 3}, {4, 3}}));
+
+        int[][] big = PuzzleFormat.parse(SOLUTION);
+        big[0][0] = 4 + 64;
+        assertFalse(SudokuValidator.isValid(big));
+
+        assertTrue(SudokuValidator.isSolutionOf(PUZZLE, SOLUTION));
+        assertFalse(SudokuValidator.isSolutionOf("3" + PUZZLE.substring(1), SOLUTION));
+    }
+
+    @Test
+    @DisplayName("Should grade submissions against the expected solution")
+    void testGrade() {
+        assertEquals(Verdict.CORRECT, SudokuValidator.grade(SOLUTION, SOLUTION));
+        assertEquals(Verdict.INCOMPLETE, SudokuValidator.grade(PUZZLE, SOLUTION));
+        assertEquals(Verdict.INVALID, SudokuValidator.grade("241538679" + SOLUTION.substring(9), SOLUTION));
+        assertEquals(Verdict.INVALID, SudokuValidator.grade(SOLUTION + "1", SOLUTION));
+        assertEquals(Verdict.INVALID, SudokuValidator.grade("?" + SOLUTION.substring(1), SOLUTION));
+
+        // relabeling 1 and 2 keeps every constraint
+        String relabeled = SOLUTION.replace('1', 'x').replace('2', '1').replace('x', '2');
+        assertEquals(Verdict.WRONG, SudokuValidator.grade(relabeled, SOLUTION));
+
+        assertEquals(Verdict.CORRECT,
+                SudokuValidator.grade(PuzzleFormat.parse(SOLUTION), PuzzleFormat.parse(SOLUTION)));
+        assertEquals(Verdict.INCOMPLETE,
+                SudokuValidator.grade(PuzzleFormat.parse(PUZZLE), PuzzleFormat.parse(SOLUTION)));
+        assertEquals(Verdict.WRONG,
+                SudokuValidator.grade(PuzzleFormat.parse(relabeled), PuzzleFormat.parse(SOLUTION)));
+    }
+
+    @Test
+    @DisplayName("Should grade a batch in input order")
+    void testGradeAll() {
+        int count = 10_000;
+        String[] submitted = new String[count];
+        for (int i = 0; i < count; i++)
+            submitted[i] = i % 3 == 0 ? SOLUTION : i % 3 == 1 ? PUZZLE : "241538679" + SOLUTION.substring(9);
+        String[] expected = new String[count];
+        Arrays.fill(expected, SOLUTION);
+
+        Verdict[] verdicts = SudokuValidator.gradeAll(Arrays.asList(submitted), Arrays.asList(expected));
+
+        for (int i = 0; i < count; i++)
+            assertEquals(i % 3 == 0 ? Verdict.CORRECT : i % 3 == 1 ? Verdict.INCOMPLETE : Verdict.INVALID,
+                    verdicts[i]);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> SudokuValidator.gradeAll(List.of(SOLUTION), List.of()));
+    }
+
+    @Test
+    @DisplayName("Game should grade its board against its solution")
+    void testGameGrade() {
+        int[][] solution = PuzzleFormat.parse(SOLUTION);
+        SudokuGame game = new SudokuGame(PuzzleFormat.parse(PUZZLE), solution, 9, 0);
+        assertEquals(Verdict.INCOMPLETE, game.grade());
+        assertFalse(game.solved());
+
+        assertTrue(new SudokuSolverDancingLinks(game).solve());
+        assertEquals(Verdict.CORRECT, game.grade());
+
+        // a solution the game was not made with
+        int[][] other = PuzzleFormat.parse(SOLUTION.replace('1', 'x').replace('2', '1').replace('x', '2'));
+        assertEquals(Verdict.WRONG, new SudokuGame(solution, other, 9, 0).grade());
+        assertEquals(Verdict.CORRECT, new SudokuGame(solution, null, 9, 0).grade());
+
+        // givens repeating a number are never solved
+        int[][] repeated = PuzzleFormat.parse(SOLUTION);
+        repeated[0][0] = 2;
+        SudokuGame broken = new SudokuGame(repeated, null, 9, 0);
+        assertEquals(Verdict.INVALID, broken.grade());
+        assertFalse(broken.solved());
+    }
+}